@@ -0,0 +1,89 @@
+package aop;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statement의 execute*, executeBatch 호출과 커넥션의 commit, rollback 호출을 DB 왕복 한 번으로 세는 DataSource.
+ */
+public class CountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> CONNECTION_ROUND_TRIPS = Set.of("commit", "rollback");
+
+    private final LongAdder roundTrips = new LongAdder();
+
+    public CountingDataSource(final DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    public long getRoundTrips() {
+        return roundTrips.sum();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private Connection countingConnection(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                CountingDataSource.class.getClassLoader(),
+                new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (CONNECTION_ROUND_TRIPS.contains(method.getName())) {
+                        roundTrips.increment();
+                    }
+                    final var result = invoke(connection, method, args);
+                    if (result instanceof Statement) {
+                        return countingStatement((Statement) result);
+                    }
+                    return result;
+                });
+    }
+
+    private Object countingStatement(final Statement statement) {
+        return Proxy.newProxyInstance(
+                CountingDataSource.class.getClassLoader(),
+                new Class[]{statementType(statement)},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        roundTrips.increment();
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Class<?> statementType(final Statement statement) {
+        if (statement instanceof CallableStatement) {
+            return CallableStatement.class;
+        }
+        if (statement instanceof PreparedStatement) {
+            return PreparedStatement.class;
+        }
+        return Statement.class;
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package aop;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * 벤치마크마다 독립된 H2 데이터베이스를 만든다. 스키마는 애플리케이션과 같은 schema.sql을 사용한다.
+ */
+public final class EmbeddedDatabases {
+
+    private EmbeddedDatabases() {
+    }
+
+    public static EmbeddedDatabase create() {
+        return new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("classpath:schema.sql")
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package aop;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * DB 왕복 없이 프록시/어드바이스 자체의 비용만 측정하기 위한 트랜잭션 매니저.
+ */
+public class NoopTransactionManager implements PlatformTransactionManager {
+
+    @Override
+    public TransactionStatus getTransaction(final TransactionDefinition definition) {
+        return new SimpleTransactionStatus();
+    }
+
+    @Override
+    public void commit(final TransactionStatus status) {
+    }
+
+    @Override
+    public void rollback(final TransactionStatus status) {
+    }
+}
@@ -0,0 +1,38 @@
+package aop;
+
+import aop.domain.User;
+import aop.service.UserService;
+
+import java.util.Collection;
+
+/**
+ * DAO를 거치지 않고 고정된 사용자를 돌려주는 타겟. 프록시 호출 경로의 비용만 남긴다.
+ */
+public class StubUserService implements UserService {
+
+    private final User user = new User(1L, "gugu", "password", "hkkang@woowahan.com");
+
+    @Transactional
+    public User findById(final long id) {
+        return user;
+    }
+
+    @Transactional
+    public void insert(final User user) {
+    }
+
+    @Transactional
+    public void insertAll(final Collection<User> users) {
+    }
+
+    @Transactional
+    public void changePassword(final long id, final String newPassword, final String createBy) {
+        user.changePassword(newPassword);
+    }
+
+    @Transactional
+    public int changePasswords(final Collection<Long> ids, final String newPassword, final String createBy) {
+        user.changePassword(newPassword);
+        return ids.size();
+    }
+}
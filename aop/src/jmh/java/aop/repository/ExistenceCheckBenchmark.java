@@ -0,0 +1,132 @@
+package aop.repository;
+
+import aop.EmbeddedDatabases;
+import aop.domain.User;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 가입 시 중복 검사처럼 대부분 없는 account를 조회할 때, findByAccount의 예외 경로, existsByAccount 쿼리, Bloom filter를 비교한다.
+ * existingRatio 비율만큼은 실제로 있는 account를 조회한다.
+ * Bloom filter의 실제 오탐률은 보조 카운터 falsePositives / negatives로 확인한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExistenceCheckBenchmark {
+
+    @Param({"100000"})
+    private int userCount;
+
+    @Param({"0.01"})
+    private double falsePositiveProbability;
+
+    @Param({"0.1"})
+    private double existingRatio;
+
+    private EmbeddedDatabase database;
+    private UserDao userDao;
+    private ExistenceCheckingUserDao existenceCheckingUserDao;
+    private String[] accounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = EmbeddedDatabases.create();
+        final var jdbcTemplate = new JdbcTemplate(database);
+        userDao = new UserDao(jdbcTemplate);
+        userDao.insertAll(IntStream.range(0, userCount)
+                .mapToObj(i -> new User("user" + i, "password", "user" + i + "@woowahan.com"))
+                .collect(Collectors.toList()));
+        existenceCheckingUserDao = new ExistenceCheckingUserDao(jdbcTemplate, userCount, falsePositiveProbability);
+        existenceCheckingUserDao.warmUp();
+
+        accounts = new String[1 << 16];
+        final var existingEvery = (int) Math.round(1 / existingRatio);
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = i % existingEvery == 0 ? "user" + i : "newbie" + i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        String nextAccount(final String[] accounts) {
+            return accounts[next++ & (accounts.length - 1)];
+        }
+    }
+
+    /**
+     * 이터레이션 동안 Bloom filter가 없다고 판단했어야 할 조회 수와 그중 오탐 수. 스레드 하나로 실행할 때만 정확하다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FilterCounters {
+
+        public long negatives;
+        public long falsePositives;
+
+        private ExistenceCheckingUserDao.FilterStatistics baseline;
+
+        @Setup(Level.Iteration)
+        public void setUp(final ExistenceCheckBenchmark benchmark) {
+            negatives = 0;
+            falsePositives = 0;
+            baseline = benchmark.existenceCheckingUserDao.getStatistics();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown(final ExistenceCheckBenchmark benchmark) {
+            final var current = benchmark.existenceCheckingUserDao.getStatistics();
+            falsePositives = current.getFalsePositiveCount() - baseline.getFalsePositiveCount();
+            negatives = current.getFilteredCount() - baseline.getFilteredCount() + falsePositives;
+        }
+    }
+
+    @Benchmark
+    public boolean findByAccount(final Cursor cursor) {
+        try {
+            return userDao.findByAccount(cursor.nextAccount(accounts)) != null;
+        } catch (EmptyResultDataAccessException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean existsByAccount(final Cursor cursor) {
+        return userDao.existsByAccount(cursor.nextAccount(accounts));
+    }
+
+    @Benchmark
+    public boolean bloomFilter(final Cursor cursor, final FilterCounters counters) {
+        return existenceCheckingUserDao.existsByAccount(cursor.nextAccount(accounts));
+    }
+}
@@ -0,0 +1,109 @@
+package aop.repository;
+
+import aop.domain.User;
+import aop.domain.UserHistory;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * users와 user_history에 userCount건을 쓰는 시간을 워커 수별로 측정해 확장 곡선을 만든다.
+ * 메모리 DB는 디스크 쓰기가 없어 병렬화 효과가 왜곡되므로 임시 디렉터리의 H2 파일 DB를 사용한다.
+ * 커넥션 풀은 가장 큰 워커 수에 맞춰 두고, 워커 수만 바꿔가며 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PartitionedBulkExecutorBenchmark {
+
+    private static final int MAXIMUM_POOL_SIZE = 8;
+
+    @Param({"20000"})
+    private int userCount;
+
+    @Param({"1", "2", "4", "8"})
+    private int workers;
+
+    private Path directory;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private UserDao userDao;
+    private UserHistoryDao userHistoryDao;
+    private PartitionedBulkExecutor executor;
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("partitioned-bulk");
+        final var config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:file:" + directory.resolve("bench").toAbsolutePath());
+        config.setMaximumPoolSize(MAXIMUM_POOL_SIZE);
+        dataSource = new HikariDataSource(config);
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")), dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        userDao = new UserDao(jdbcTemplate);
+        userHistoryDao = new UserHistoryDao(jdbcTemplate);
+        executor = new PartitionedBulkExecutor(new DataSourceTransactionManager(dataSource), dataSource, workers);
+    }
+
+    @Setup(Level.Invocation)
+    public void createUsers() {
+        jdbcTemplate.execute("truncate table users");
+        jdbcTemplate.execute("truncate table user_history");
+        users = IntStream.range(0, userCount)
+                .mapToObj(i -> new User(String.format("user%06d", i), "password", "user" + i + "@woowahan.com"))
+                .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.close();
+        dataSource.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public PartitionedBulkExecutor.Result<User> insertWithHistory() {
+        final var result = executor.execute(users, Comparator.comparing(User::getAccount), partition -> {
+            userDao.insertAll(partition);
+            userHistoryDao.logAll(partition.stream()
+                    .map(user -> new UserHistory(user, "bulk"))
+                    .collect(Collectors.toList()));
+        });
+        if (result.hasFailures()) {
+            throw new IllegalStateException("partition failed", result.getFailures().get(0).getCause());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,78 @@
+package aop.repository;
+
+import aop.EmbeddedDatabases;
+import aop.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 한 트랜잭션 안에서 insert()를 반복 호출하는 방식과 insertAll()의 배치 insert를 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserDaoInsertBenchmark {
+
+    @Param({"10000"})
+    private int userCount;
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    private EmbeddedDatabase database;
+    private UserDao userDao;
+    private TransactionTemplate transactionTemplate;
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = EmbeddedDatabases.create();
+        userDao = new UserDao(new JdbcTemplate(database));
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+    }
+
+    @Setup(Level.Invocation)
+    public void createUsers() {
+        users = IntStream.range(0, userCount)
+                .mapToObj(i -> new User("user" + i, "password", "user" + i + "@woowahan.com"))
+                .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void loopInsert() {
+        transactionTemplate.executeWithoutResult(status -> users.forEach(userDao::insert));
+    }
+
+    @Benchmark
+    public void insertAll() {
+        transactionTemplate.executeWithoutResult(status -> userDao.insertAll(users, batchSize));
+    }
+}
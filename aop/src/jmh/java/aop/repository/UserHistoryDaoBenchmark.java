@@ -0,0 +1,70 @@
+package aop.repository;
+
+import aop.EmbeddedDatabases;
+import aop.domain.User;
+import aop.domain.UserHistory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * changePassword 트랜잭션 안에서 이력 한 건을 기록하는 비용을 비교한다.
+ * SampleTime 모드라서 처리량과 함께 p99 지연 시간도 확인할 수 있다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserHistoryDaoBenchmark {
+
+    @Param({"SYNC", "BEFORE_COMMIT", "AFTER_COMMIT"})
+    private String mode;
+
+    private EmbeddedDatabase database;
+    private UserHistoryDao userHistoryDao;
+    private TransactionTemplate transactionTemplate;
+    private UserHistory userHistory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = EmbeddedDatabases.create();
+        final var jdbcTemplate = new JdbcTemplate(database);
+        userHistoryDao = "SYNC".equals(mode)
+                ? new UserHistoryDao(jdbcTemplate)
+                : new AsyncUserHistoryDao(jdbcTemplate, AsyncUserHistoryDao.FlushPolicy.valueOf(mode), 10_000, 100, Duration.ofMillis(100));
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        userHistory = new UserHistory(new User(1L, "gugu", "password", "hkkang@woowahan.com"), "gugu");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (userHistoryDao instanceof AsyncUserHistoryDao) {
+            ((AsyncUserHistoryDao) userHistoryDao).close();
+        }
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void log() {
+        transactionTemplate.executeWithoutResult(status -> userHistoryDao.log(userHistory));
+    }
+}
@@ -0,0 +1,76 @@
+package aop.repository;
+
+import aop.EmbeddedDatabases;
+import aop.domain.UserHistory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * user_history에 historyCount건이 쌓였을 때 "사용자의 최근 N건" 조회의 지연 시간을 측정한다.
+ * indexed가 false면 (user_id, created_at) 인덱스를 지운 상태로 측정해서 인덱스의 효과를 비교한다.
+ * 1천만 건은 메모리 DB에 올리므로 -Xmx4g 이상으로 실행한다.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class UserHistoryQueryBenchmark {
+
+    @Param({"10000000"})
+    private int historyCount;
+
+    @Param({"100000"})
+    private int userCount;
+
+    @Param({"10"})
+    private int limit;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private EmbeddedDatabase database;
+    private UserHistoryDao userHistoryDao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = EmbeddedDatabases.create();
+        final var jdbcTemplate = new JdbcTemplate(database);
+        userHistoryDao = new UserHistoryDao(jdbcTemplate);
+        if (!indexed) {
+            jdbcTemplate.execute("drop index idx_user_history_user_id_created_at");
+        }
+        jdbcTemplate.update("insert into user_history (user_id, account, password, email, created_at, created_by) "
+                        + "select mod(x, ?), 'user', 'password', 'user@woowahan.com', dateadd('SECOND', -x, current_timestamp), 'gugu' "
+                        + "from system_range(1, ?)",
+                userCount, historyCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public List<UserHistory> findLatestByUserId() {
+        return userHistoryDao.findLatestByUserId(ThreadLocalRandom.current().nextInt(userCount), limit);
+    }
+}
@@ -0,0 +1,76 @@
+package aop.repository;
+
+import aop.EmbeddedDatabases;
+import aop.domain.User;
+import aop.domain.UserProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 사용자 userCount명을 읽을 때 User 목록, UserProfile 목록, UserView 스캔의 비용을 비교한다.
+ * 사용자당 메모리는 gc 프로파일러의 gc.alloc.rate.norm(호출 한 번에 할당한 바이트)을 userCount로 나눠 비교한다.
+ * findAll과 findAllProfiles는 결과 목록 전체가 동시에 살아 있으므로 이 값이 곧 목록이 차지하는 힙의 상한이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserProjectionBenchmark {
+
+    @Param({"1000000"})
+    private int userCount;
+
+    private EmbeddedDatabase database;
+    private UserDao userDao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = EmbeddedDatabases.create();
+        userDao = new UserDao(new JdbcTemplate(database));
+        userDao.insertAll(IntStream.range(0, userCount)
+                .mapToObj(i -> new User("user" + i, "password", "user" + i + "@woowahan.com"))
+                .collect(Collectors.toList()), 10_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public List<User> findAll() {
+        return userDao.findAll();
+    }
+
+    @Benchmark
+    public List<UserProfile> findAllProfiles() {
+        return userDao.findAllProfiles();
+    }
+
+    @Benchmark
+    public long scanAccounts() {
+        final var totalLength = new long[1];
+        userDao.scan(view -> totalLength[0] += view.getAccount().length());
+        return totalLength[0];
+    }
+}
@@ -0,0 +1,77 @@
+package aop.repository;
+
+import aop.EmbeddedDatabases;
+import aop.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 컬럼 이름으로 읽는 매퍼(호출마다 생성)와 UserDao가 재사용하는 인덱스 기반 매퍼의 매핑 비용을 비교한다.
+ * 두 경우 모두 같은 쿼리를 실행하므로 차이는 매핑 비용이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserRowMapperBenchmark {
+
+    private static final String SQL = "select id, account, password, email, version from users";
+
+    @Param({"1000000"})
+    private int userCount;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = EmbeddedDatabases.create();
+        jdbcTemplate = new JdbcTemplate(database);
+        final var users = IntStream.range(0, userCount)
+                .mapToObj(i -> new User("user" + i, "password", "user" + i + "@woowahan.com"))
+                .collect(Collectors.toList());
+        new UserDao(jdbcTemplate).insertAll(users, 10_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void mapByColumnName(final Blackhole blackhole) {
+        final RowMapper<User> rowMapper = (rs, i) -> new User(
+                rs.getLong("id"),
+                rs.getString("account"),
+                rs.getString("password"),
+                rs.getString("email"));
+        jdbcTemplate.query(SQL, (RowCallbackHandler) rs -> blackhole.consume(rowMapper.mapRow(rs, 0)));
+    }
+
+    @Benchmark
+    public void mapByColumnIndex(final Blackhole blackhole) {
+        jdbcTemplate.query(SQL, (RowCallbackHandler) rs -> blackhole.consume(UserDao.USER_ROW_MAPPER.mapRow(rs, 0)));
+    }
+}
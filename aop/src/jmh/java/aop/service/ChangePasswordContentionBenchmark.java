@@ -0,0 +1,108 @@
+package aop.service;
+
+import aop.DataAccessException;
+import aop.EmbeddedDatabases;
+import aop.domain.User;
+import aop.domain.UserHistory;
+import aop.repository.UserDao;
+import aop.repository.UserHistoryDao;
+import aop.stage1.TransactionAdvice;
+import aop.stage1.TransactionAdvisor;
+import aop.stage1.TransactionPointcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 여러 스레드가 소수의 사용자 비밀번호를 동시에 바꿀 때의 처리량을 비교한다.
+ * optimistic은 version 조건부 update와 어드바이스의 재시도를, pessimistic은 SELECT ... FOR UPDATE로 행을 잠그는 방식을 사용한다.
+ * 재시도 횟수를 넘겨 실패한 호출은 false를 반환한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ChangePasswordContentionBenchmark {
+
+    @Param({"1", "16"})
+    private int hotUsers;
+
+    private EmbeddedDatabase database;
+    private UserService optimisticUserService;
+    private UserDao userDao;
+    private UserHistoryDao userHistoryDao;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = EmbeddedDatabases.create();
+        final var jdbcTemplate = new JdbcTemplate(database);
+        final var transactionManager = new DataSourceTransactionManager(database);
+        userDao = new UserDao(jdbcTemplate);
+        userHistoryDao = new UserHistoryDao(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        userDao.insertAll(IntStream.rangeClosed(1, hotUsers)
+                .mapToObj(i -> new User("user" + i, "password", "user" + i + "@woowahan.com"))
+                .collect(Collectors.toList()));
+
+        final var proxyFactory = new ProxyFactory(new AppUserService(userDao, userHistoryDao));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(new TransactionAdvisor(new TransactionPointcut(), new TransactionAdvice(transactionManager)));
+        optimisticUserService = (UserService) proxyFactory.getProxy();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public boolean optimistic() {
+        try {
+            optimisticUserService.changePassword(nextUserId(), "optimistic", "gugu");
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean pessimistic() {
+        final var id = nextUserId();
+        transactionTemplate.executeWithoutResult(status -> {
+            final var user = userDao.findByIdForUpdate(id);
+            user.changePassword("pessimistic");
+            userDao.update(user);
+            userHistoryDao.log(new UserHistory(user, "gugu"));
+        });
+        return true;
+    }
+
+    private long nextUserId() {
+        return ThreadLocalRandom.current().nextLong(1, hotUsers + 1);
+    }
+}
@@ -0,0 +1,116 @@
+package aop.service;
+
+import aop.EmbeddedDatabases;
+import aop.domain.User;
+import aop.repository.UserDao;
+import aop.repository.UserHistoryDao;
+import aop.stage0.TransactionHandler;
+import aop.stage1.TransactionAdvice;
+import aop.stage1.TransactionAdvisor;
+import aop.stage1.TransactionPointcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactoryBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 같은 AppUserService와 H2 DB를 대상으로 세 가지 트랜잭션 적용 방식의 findById, changePassword 비용을 비교한다.
+ * decorator는 TxUserService, jdkProxy는 stage0의 TransactionHandler, advisor는 stage1의 TransactionAdvisor를 사용한다.
+ *
+ * Throughput과 SampleTime을 함께 측정하므로 처리량과 p99 지연 시간이 한 번에 나온다.
+ * 할당량은 build.gradle의 jmh 설정에 켜둔 gc 프로파일러의 gc.alloc.rate.norm으로 확인한다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionApproachBenchmark {
+
+    private static final int USER_COUNT = 1_000;
+
+    @Param({"decorator", "jdkProxy", "advisor"})
+    private String approach;
+
+    private EmbeddedDatabase database;
+    private UserService userService;
+    private long[] userIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = EmbeddedDatabases.create();
+        final var jdbcTemplate = new JdbcTemplate(database);
+        final var transactionManager = new DataSourceTransactionManager(database);
+        final var userDao = new UserDao(jdbcTemplate);
+        final var userHistoryDao = new UserHistoryDao(jdbcTemplate);
+
+        final var users = IntStream.range(0, USER_COUNT)
+                .mapToObj(i -> new User("user" + i, "password", "user" + i + "@woowahan.com"))
+                .collect(Collectors.toList());
+        userDao.insertAll(users);
+        userIds = users.stream().mapToLong(User::getId).toArray();
+
+        final var target = new AppUserService(userDao, userHistoryDao);
+        switch (approach) {
+            case "decorator":
+                userService = new TxUserService(transactionManager, target);
+                break;
+            case "jdkProxy":
+                userService = (UserService) Proxy.newProxyInstance(
+                        getClass().getClassLoader(),
+                        new Class[]{UserService.class},
+                        new TransactionHandler(transactionManager, target));
+                break;
+            case "advisor":
+                final var proxyFactoryBean = new ProxyFactoryBean();
+                proxyFactoryBean.setTarget(target);
+                proxyFactoryBean.setProxyTargetClass(true);
+                proxyFactoryBean.addAdvisor(new TransactionAdvisor(new TransactionPointcut(), new TransactionAdvice(transactionManager)));
+                userService = (UserService) proxyFactoryBean.getObject();
+                break;
+            default:
+                throw new IllegalArgumentException("unknown approach : " + approach);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public User findById() {
+        return userService.findById(nextUserId());
+    }
+
+    @Benchmark
+    public void changePassword() {
+        userService.changePassword(nextUserId(), "password", "gugu");
+    }
+
+    private long nextUserId() {
+        final var id = userIds[next];
+        next = (next + 1) % USER_COUNT;
+        return id;
+    }
+}
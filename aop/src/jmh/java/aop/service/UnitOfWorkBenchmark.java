@@ -0,0 +1,102 @@
+package aop.service;
+
+import aop.CountingDataSource;
+import aop.EmbeddedDatabases;
+import aop.domain.User;
+import aop.repository.UnitOfWorkManager;
+import aop.repository.UserDao;
+import aop.repository.UserHistoryDao;
+import aop.repository.WriteBehindUserDao;
+import aop.repository.WriteBehindUserHistoryDao;
+import aop.stage1.TransactionAdvice;
+import aop.stage1.TransactionAdvisor;
+import aop.stage1.TransactionPointcut;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * changePassword 한 번에 발생하는 DB 왕복 횟수(roundTrips)와 지연 시간을 비교한다.
+ * direct는 SELECT, UPDATE, INSERT를 각각 실행하고, unitOfWork는 UPDATE와 INSERT를 커밋 직전에 배치로 실행한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UnitOfWorkBenchmark {
+
+    @Param({"direct", "unitOfWork"})
+    private String mode;
+
+    private EmbeddedDatabase database;
+    private CountingDataSource dataSource;
+    private UserService userService;
+    private long userId;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long roundTrips;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = EmbeddedDatabases.create();
+        dataSource = new CountingDataSource(database);
+        final var jdbcTemplate = new JdbcTemplate(dataSource);
+
+        final UserDao userDao;
+        final UserHistoryDao userHistoryDao;
+        if ("unitOfWork".equals(mode)) {
+            final var unitOfWorkManager = new UnitOfWorkManager(jdbcTemplate);
+            userDao = new WriteBehindUserDao(jdbcTemplate, unitOfWorkManager);
+            userHistoryDao = new WriteBehindUserHistoryDao(jdbcTemplate, unitOfWorkManager);
+        } else {
+            userDao = new UserDao(jdbcTemplate);
+            userHistoryDao = new UserHistoryDao(jdbcTemplate);
+        }
+
+        final var user = new User("gugu", "password", "hkkang@woowahan.com");
+        userDao.insertAll(List.of(user));
+        userId = user.getId();
+
+        final var proxyFactory = new ProxyFactory(new AppUserService(userDao, userHistoryDao));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(new TransactionAdvisor(
+                new TransactionPointcut(),
+                new TransactionAdvice(new DataSourceTransactionManager(dataSource))));
+        userService = (UserService) proxyFactory.getProxy();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void changePassword(final RoundTrips counters) {
+        final var before = dataSource.getRoundTrips();
+        userService.changePassword(userId, "password", "gugu");
+        counters.roundTrips += dataSource.getRoundTrips() - before;
+    }
+}
@@ -0,0 +1,128 @@
+package aop.stage0;
+
+import aop.domain.User;
+import aop.repository.UserDao;
+import aop.repository.UserHistoryDao;
+import aop.service.AppContextUserService;
+import aop.service.AppUserService;
+import aop.service.ContextUserService;
+import aop.service.UserService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 스레드 tasks개를 만들어 각각 서로 다른 사용자의 changePassword 트랜잭션을 한 번씩 실행하는 데 걸리는 시간을 비교한다.
+ * threadLocal은 TransactionHandler와 DataSourceTransactionManager를, explicitContext는 ContextTransactionHandler를 사용한다.
+ * JDK 21 이상에서 실행하면 가상 스레드를, 그 이하에서는 플랫폼 스레드를 사용한다.
+ * 스레드당 할당량은 -prof gc 옵션으로 함께 확인한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadBindingBenchmark {
+
+    @Param({"10000"})
+    private int tasks;
+
+    private HikariDataSource dataSource;
+    private ThreadFactory threadFactory;
+    private UserService threadLocalUserService;
+    private ContextUserService contextUserService;
+    private long[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final var config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(16);
+        dataSource = new HikariDataSource(config);
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")), dataSource);
+
+        final var jdbcTemplate = new JdbcTemplate(dataSource);
+        final var userDao = new UserDao(jdbcTemplate);
+        final var userHistoryDao = new UserHistoryDao(jdbcTemplate);
+        final var users = IntStream.range(0, tasks)
+                .mapToObj(i -> new User("user" + i, "password", "user" + i + "@woowahan.com"))
+                .collect(Collectors.toList());
+        userDao.insertAll(users);
+        userIds = users.stream().mapToLong(User::getId).toArray();
+
+        threadLocalUserService = (UserService) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[]{UserService.class},
+                new TransactionHandler(new DataSourceTransactionManager(dataSource), new AppUserService(userDao, userHistoryDao)));
+        contextUserService = (ContextUserService) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[]{ContextUserService.class},
+                new ContextTransactionHandler(dataSource, new AppContextUserService(userDao, userHistoryDao)));
+        threadFactory = virtualThreadFactoryOrDefault();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void threadLocal() throws InterruptedException {
+        runOnNewThreads(i -> threadLocalUserService.changePassword(userIds[i], "password", "gugu"));
+    }
+
+    @Benchmark
+    public void explicitContext() throws InterruptedException {
+        runOnNewThreads(i -> contextUserService.changePassword(null, userIds[i], "password", "gugu"));
+    }
+
+    private void runOnNewThreads(final IntConsumer task) throws InterruptedException {
+        final var threads = new ArrayList<Thread>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            final var index = i;
+            final var thread = threadFactory.newThread(() -> task.accept(index));
+            thread.start();
+            threads.add(thread);
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static ThreadFactory virtualThreadFactoryOrDefault() throws Exception {
+        try {
+            final var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (NoSuchMethodException e) {
+            return Executors.defaultThreadFactory();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package aop.stage0;
+
+import aop.NoopTransactionManager;
+import aop.StubUserService;
+import aop.Transactional;
+import aop.domain.User;
+import aop.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 호출마다 @Transactional 어노테이션을 조회하는 프록시와 프록시 생성 시점에 캐싱해둔 TransactionHandler를 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionHandlerBenchmark {
+
+    private UserService uncached;
+    private UserService cached;
+
+    @Setup
+    public void setUp() {
+        final var transactionManager = new NoopTransactionManager();
+        uncached = createProxy(new UncachedTransactionHandler(transactionManager, new StubUserService()));
+        cached = createProxy(new TransactionHandler(transactionManager, new StubUserService()));
+    }
+
+    @Benchmark
+    public User uncachedFindById() {
+        return uncached.findById(1L);
+    }
+
+    @Benchmark
+    public User cachedFindById() {
+        return cached.findById(1L);
+    }
+
+    private static UserService createProxy(final InvocationHandler handler) {
+        return (UserService) Proxy.newProxyInstance(
+                TransactionHandlerBenchmark.class.getClassLoader(),
+                new Class[]{UserService.class},
+                handler);
+    }
+
+    private static class UncachedTransactionHandler implements InvocationHandler {
+
+        private final PlatformTransactionManager transactionManager;
+        private final Object target;
+
+        UncachedTransactionHandler(final PlatformTransactionManager transactionManager, final Object target) {
+            this.transactionManager = transactionManager;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final var targetMethod = target.getClass().getMethod(method.getName(), method.getParameterTypes());
+            if (!targetMethod.isAnnotationPresent(Transactional.class)) {
+                return invokeTarget(method, args);
+            }
+
+            final var transactionStatus = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            final var result = invokeTarget(method, args);
+            transactionManager.commit(transactionStatus);
+            return result;
+        }
+
+        private Object invokeTarget(final Method method, final Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package aop.stage1;
+
+import aop.NoopTransactionManager;
+import aop.StubUserService;
+import aop.domain.User;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 어드바이스를 adviceCount개 쌓았을 때 호출 한 번의 비용을 비교한다.
+ * 첫 번째 어드바이스는 트랜잭션 어드바이스이고 나머지는 다음 단계로 넘기기만 하는 어드바이스다.
+ * 호출마다 생기는 객체 수는 -prof gc의 gc.alloc.rate.norm으로 확인한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdviceChainBenchmark {
+
+    @Param({"1", "3", "5"})
+    private int adviceCount;
+
+    private StubUserService springProxy;
+    private StubUserService dispatchTableProxy;
+    private StubUserService adviceChainProxy;
+
+    @Setup
+    public void setUp() {
+        final var transactionManager = new NoopTransactionManager();
+        final var pointcut = new TransactionPointcut();
+
+        final var springAdvisors = new ArrayList<DefaultPointcutAdvisor>();
+        final var chainedAdvisors = new ArrayList<ChainedAdvisor>();
+        springAdvisors.add(new DefaultPointcutAdvisor(pointcut, new TransactionAdvice(transactionManager)));
+        chainedAdvisors.add(new ChainedAdvisor(pointcut, new ChainedTransactionAdvice(transactionManager), 0));
+        for (int i = 1; i < adviceCount; i++) {
+            springAdvisors.add(new DefaultPointcutAdvisor(pointcut, new PassThroughAdvice()));
+            chainedAdvisors.add(new ChainedAdvisor(pointcut, new PassThroughAdvice(), i));
+        }
+
+        final var proxyFactory = new ProxyFactory(new StubUserService());
+        proxyFactory.setProxyTargetClass(true);
+        springAdvisors.forEach(proxyFactory::addAdvisor);
+        springProxy = (StubUserService) proxyFactory.getProxy();
+        dispatchTableProxy = new AdvisorProxyFactory(springAdvisors).createProxy(new StubUserService());
+        adviceChainProxy = new AdviceChainProxyFactory(chainedAdvisors).createProxy(new StubUserService());
+    }
+
+    @Benchmark
+    public User springProxy() {
+        return springProxy.findById(1L);
+    }
+
+    @Benchmark
+    public User dispatchTableProxy() {
+        return dispatchTableProxy.findById(1L);
+    }
+
+    @Benchmark
+    public User adviceChainProxy() {
+        return adviceChainProxy.findById(1L);
+    }
+
+    private static class PassThroughAdvice implements MethodInterceptor, ChainedAdvice {
+
+        @Override
+        public Object invoke(final MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+
+        @Override
+        public Object invoke(final AdviceChain chain, final int next, final Object[] args) throws Throwable {
+            return chain.proceed(next, args);
+        }
+    }
+}
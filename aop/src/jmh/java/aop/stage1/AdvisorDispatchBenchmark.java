@@ -0,0 +1,90 @@
+package aop.stage1;
+
+import aop.NoopTransactionManager;
+import aop.StubUserService;
+import aop.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProxyFactory + TransactionAdvisor 방식과 AdvisorProxyFactory(시작 시점에 만든 디스패치 테이블) 방식을 비교한다.
+ * startup 벤치마크는 빈 beanCount개의 프록시를 만드는 시간을, findById 벤치마크는 호출 한 번의 비용을 측정한다.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdvisorDispatchBenchmark {
+
+    @Param({"300"})
+    private int beanCount;
+
+    private TransactionAdvisor advisor;
+    private StubUserService springProxy;
+    private StubUserService dispatchTableProxy;
+
+    @Setup
+    public void setUp() {
+        advisor = new TransactionAdvisor(new TransactionPointcut(), new TransactionAdvice(new NoopTransactionManager()));
+        springProxy = createSpringProxy(new StubUserService());
+        dispatchTableProxy = new AdvisorProxyFactory(List.of(advisor)).createProxy(new StubUserService());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<StubUserService> springProxyStartup() {
+        final var proxies = new ArrayList<StubUserService>(beanCount);
+        for (int i = 0; i < beanCount; i++) {
+            proxies.add(createSpringProxy(new StubUserService()));
+        }
+        return proxies;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<StubUserService> dispatchTableStartup() {
+        final var proxyFactory = new AdvisorProxyFactory(List.of(advisor));
+        final var proxies = new ArrayList<StubUserService>(beanCount);
+        for (int i = 0; i < beanCount; i++) {
+            proxies.add(proxyFactory.createProxy(new StubUserService()));
+        }
+        return proxies;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public User springProxyFindById() {
+        return springProxy.findById(1L);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public User dispatchTableFindById() {
+        return dispatchTableProxy.findById(1L);
+    }
+
+    private StubUserService createSpringProxy(final StubUserService target) {
+        final var proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(advisor);
+        return (StubUserService) proxyFactory.getProxy();
+    }
+}
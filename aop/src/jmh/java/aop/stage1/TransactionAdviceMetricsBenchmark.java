@@ -0,0 +1,62 @@
+package aop.stage1;
+
+import aop.NoopTransactionManager;
+import aop.StubUserService;
+import aop.domain.User;
+import aop.metrics.TransactionMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactoryBean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionAdvice에 TransactionMetrics를 켰을 때 호출마다 늘어나는 비용을 측정한다.
+ * 트랜잭션 매니저는 아무 일도 하지 않으므로 측정값의 차이가 곧 기록 비용이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TransactionAdviceMetricsBenchmark {
+
+    private StubUserService withoutMetrics;
+    private StubUserService withMetrics;
+
+    @Setup
+    public void setUp() {
+        final var transactionManager = new NoopTransactionManager();
+        withoutMetrics = createProxy(new TransactionAdvice(transactionManager));
+        withMetrics = createProxy(new TransactionAdvice(transactionManager, new TransactionMetrics()));
+    }
+
+    @Benchmark
+    public User findByIdWithoutMetrics() {
+        return withoutMetrics.findById(1L);
+    }
+
+    @Benchmark
+    public User findByIdWithMetrics() {
+        return withMetrics.findById(1L);
+    }
+
+    private static StubUserService createProxy(final TransactionAdvice transactionAdvice) {
+        final var proxyFactoryBean = new ProxyFactoryBean();
+        proxyFactoryBean.setTarget(new StubUserService());
+        proxyFactoryBean.setProxyTargetClass(true);
+        proxyFactoryBean.addAdvisor(new TransactionAdvisor(new TransactionPointcut(), transactionAdvice));
+        return (StubUserService) proxyFactoryBean.getObject();
+    }
+}
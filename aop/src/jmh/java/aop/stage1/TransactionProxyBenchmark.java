@@ -0,0 +1,59 @@
+package aop.stage1;
+
+import aop.NoopTransactionManager;
+import aop.StubUserService;
+import aop.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactoryBean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스프링 어드바이저(ProxyFactoryBean + TransactionAdvisor)와 TransactionProxyFactory가 만든 프록시의 호출 비용을 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionProxyBenchmark {
+
+    private StubUserService advisorProxy;
+    private StubUserService generatedProxy;
+
+    @Setup
+    public void setUp() {
+        final var transactionManager = new NoopTransactionManager();
+
+        final var proxyFactoryBean = new ProxyFactoryBean();
+        proxyFactoryBean.setTarget(new StubUserService());
+        proxyFactoryBean.setProxyTargetClass(true);
+        proxyFactoryBean.addAdvisor(new TransactionAdvisor(
+                new TransactionPointcut(),
+                new TransactionAdvice(transactionManager)));
+        advisorProxy = (StubUserService) proxyFactoryBean.getObject();
+
+        generatedProxy = new TransactionProxyFactory(new TransactionPointcut(), transactionManager)
+                .createProxy(new StubUserService());
+    }
+
+    @Benchmark
+    public User advisorFindById() {
+        return advisorProxy.findById(1L);
+    }
+
+    @Benchmark
+    public User generatedFindById() {
+        return generatedProxy.findById(1L);
+    }
+}
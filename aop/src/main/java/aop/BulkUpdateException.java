@@ -0,0 +1,26 @@
+package aop;
+
+/**
+ * 여러 청크로 나눠 처리하던 작업이 중간에 실패했을 때 발생한다.
+ * resumeIndex 앞까지는 이미 커밋되었으므로, 같은 입력으로 resumeIndex부터 다시 시작하면 된다.
+ */
+public class BulkUpdateException extends DataAccessException {
+    private static final long serialVersionUID = 1L;
+
+    private final int resumeIndex;
+    private final int completedCount;
+
+    public BulkUpdateException(final int resumeIndex, final int completedCount, final Throwable cause) {
+        super("bulk update failed at index " + resumeIndex + " after " + completedCount + " rows", cause);
+        this.resumeIndex = resumeIndex;
+        this.completedCount = completedCount;
+    }
+
+    public int getResumeIndex() {
+        return resumeIndex;
+    }
+
+    public int getCompletedCount() {
+        return completedCount;
+    }
+}
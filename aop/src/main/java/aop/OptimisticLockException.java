@@ -0,0 +1,9 @@
+package aop;
+
+public class OptimisticLockException extends DataAccessException {
+    private static final long serialVersionUID = 1L;
+
+    public OptimisticLockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,80 @@
+package aop;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @Transactional 어노테이션을 한 번만 해석해서 보관하는 객체.
+ * 프록시는 메서드마다 이 객체를 캐싱해두고 호출할 때마다 재사용한다.
+ */
+public class TransactionAttribute {
+
+    private final Propagation propagation;
+    private final TransactionDefinition definition;
+    private final int retryOnConflict;
+    private final long retryBackoffMillis;
+
+    private TransactionAttribute(final Propagation propagation, final boolean readOnly,
+                                 final int retryOnConflict, final long retryBackoffMillis) {
+        final var definition = new DefaultTransactionDefinition(propagation.value());
+        definition.setReadOnly(readOnly);
+        this.propagation = propagation;
+        this.definition = definition;
+        this.retryOnConflict = retryOnConflict;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    public static TransactionAttribute from(final Transactional transactional) {
+        return new TransactionAttribute(
+                transactional.propagation(),
+                transactional.readOnly(),
+                transactional.retryOnConflict(),
+                transactional.retryBackoffMillis());
+    }
+
+    /**
+     * 진행 중인 트랜잭션에 참여할 수 있거나(REQUIRED, SUPPORTS, MANDATORY),
+     * 트랜잭션 없이 실행해도 되는 경우(readOnly가 아닌 SUPPORTS)에는 트랜잭션 매니저를 거치지 않고 바로 타겟을 호출한다.
+     * readOnly는 트랜잭션 매니저가 커넥션에 적용하므로, 참여할 트랜잭션이 없으면 건너뛰지 않는다.
+     */
+    public boolean canSkipTransactionManager() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return propagation == Propagation.REQUIRED
+                    || propagation == Propagation.SUPPORTS
+                    || propagation == Propagation.MANDATORY;
+        }
+        return propagation == Propagation.SUPPORTS && !isReadOnly();
+    }
+
+    public boolean isRetryable() {
+        return retryOnConflict > 0;
+    }
+
+    /**
+     * attempt번째(0부터 시작) 시도가 동시 수정 충돌로 실패했을 때 다시 시도할지 판단한다.
+     */
+    public boolean canRetry(final Throwable e, final int attempt) {
+        return attempt < retryOnConflict
+                && (e instanceof OptimisticLockException || e.getCause() instanceof OptimisticLockException);
+    }
+
+    /**
+     * 재시도가 몰리지 않도록 지수적으로 늘어나는 대기 시간에 최대 같은 크기의 무작위 값을 더한다.
+     */
+    public long retryDelayMillis(final int attempt) {
+        final var delay = retryBackoffMillis << Math.min(attempt, 16);
+        return delay + ThreadLocalRandom.current().nextLong(delay + 1);
+    }
+
+    public TransactionDefinition getDefinition() {
+        return definition;
+    }
+
+    public boolean isReadOnly() {
+        return definition.isReadOnly();
+    }
+}
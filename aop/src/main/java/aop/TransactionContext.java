@@ -0,0 +1,54 @@
+package aop;
+
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 트랜잭션의 커넥션을 ThreadLocal에 바인딩하지 않고 메서드 인자로 직접 전달하기 위한 객체.
+ * 같은 트랜잭션에 참여하려면 받은 TransactionContext를 그대로 다음 메서드에 넘긴다.
+ *
+ * JdbcTemplate은 조회만 해도 TransactionSynchronizationManager의 ThreadLocal을 읽으면서 스레드마다 ThreadLocalMap을 만든다.
+ * 그래서 여기서는 커넥션으로 직접 쿼리를 실행한다.
+ */
+public class TransactionContext {
+
+    private final Connection connection;
+
+    public TransactionContext(final Connection connection) {
+        this.connection = connection;
+    }
+
+    public <T> T queryForObject(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+        try (final var pstmt = connection.prepareStatement(sql)) {
+            new ArgumentPreparedStatementSetter(args).setValues(pstmt);
+            try (final var rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new DataAccessException("no result : " + sql);
+                }
+                final var result = rowMapper.mapRow(rs, 0);
+                if (rs.next()) {
+                    throw new DataAccessException("more than one result : " + sql);
+                }
+                return result;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(e);
+        }
+    }
+
+    public int update(final String sql, final Object... args) {
+        try (final var pstmt = connection.prepareStatement(sql)) {
+            new ArgumentPreparedStatementSetter(args).setValues(pstmt);
+            return pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException(e);
+        }
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+}
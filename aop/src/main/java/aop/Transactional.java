@@ -1,5 +1,7 @@
 package aop;
 
+import org.springframework.transaction.annotation.Propagation;
+
 import java.lang.annotation.*;
 
 @Target({ElementType.METHOD})
@@ -7,4 +9,18 @@ import java.lang.annotation.*;
 @Inherited
 @Documented
 public @interface Transactional {
+
+    boolean readOnly() default false;
+
+    Propagation propagation() default Propagation.REQUIRED;
+
+    /**
+     * OptimisticLockException으로 실패했을 때 트랜잭션을 새로 시작해서 다시 시도할 횟수.
+     */
+    int retryOnConflict() default 0;
+
+    /**
+     * 첫 번째 재시도 전 대기 시간. 재시도할 때마다 두 배로 늘어난다.
+     */
+    long retryBackoffMillis() default 10;
 }
@@ -0,0 +1,30 @@
+package aop.config;
+
+import aop.repository.AsyncUserHistoryDao;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * unit-of-work도 UserHistoryDao를 바꾸므로 함께 켤 수 없다. ExclusiveFeatureConfig 참고.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "aop.user-history.async", name = "enabled", havingValue = "true")
+public class AsyncUserHistoryConfig {
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public AsyncUserHistoryDao asyncUserHistoryDao(
+            final JdbcTemplate jdbcTemplate,
+            @Value("${aop.user-history.async.flush-policy:BEFORE_COMMIT}") final AsyncUserHistoryDao.FlushPolicy flushPolicy,
+            @Value("${aop.user-history.async.capacity:10000}") final int capacity,
+            @Value("${aop.user-history.async.batch-size:100}") final int batchSize,
+            @Value("${aop.user-history.async.flush-interval:100ms}") final Duration flushInterval) {
+        return new AsyncUserHistoryDao(jdbcTemplate, flushPolicy, capacity, batchSize, flushInterval);
+    }
+}
@@ -0,0 +1,49 @@
+package aop.config;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * UserDao와 UserHistoryDao를 바꾸는 기능은 각각 UserDao를 상속한 @Primary 빈을 등록하므로 한 번에 하나만 켤 수 있다.
+ *
+ * UserDao: aop.user-cache.enabled, aop.unit-of-work.enabled, aop.user-existence-filter.enabled 중 하나
+ * UserHistoryDao: aop.unit-of-work.enabled, aop.user-history.async.enabled 중 하나
+ *
+ * 둘 이상 켜면 주입 시점의 모호한 빈 오류 대신 켜진 속성 이름을 담은 IllegalStateException으로 시작이 실패한다.
+ * 빈을 만들기 전에 확인해야 하므로 BeanFactoryPostProcessor에서 검사한다.
+ */
+@Configuration
+public class ExclusiveFeatureConfig {
+
+    static final List<String> USER_DAO_FEATURES = List.of(
+            "aop.user-cache.enabled",
+            "aop.unit-of-work.enabled",
+            "aop.user-existence-filter.enabled");
+
+    static final List<String> USER_HISTORY_DAO_FEATURES = List.of(
+            "aop.unit-of-work.enabled",
+            "aop.user-history.async.enabled");
+
+    @Bean
+    public static BeanFactoryPostProcessor exclusiveFeatureValidator(final Environment environment) {
+        return beanFactory -> {
+            validate(environment, "UserDao", USER_DAO_FEATURES);
+            validate(environment, "UserHistoryDao", USER_HISTORY_DAO_FEATURES);
+        };
+    }
+
+    private static void validate(final Environment environment, final String type, final List<String> features) {
+        final var enabled = features.stream()
+                .filter(feature -> "true".equalsIgnoreCase(environment.getProperty(feature)))
+                .collect(Collectors.toList());
+        if (enabled.size() > 1) {
+            throw new IllegalStateException(
+                    "at most one " + type + " feature can be enabled, but found " + enabled + " (choose one of " + features + ")");
+        }
+    }
+}
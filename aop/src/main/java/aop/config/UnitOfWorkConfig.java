@@ -0,0 +1,36 @@
+package aop.config;
+
+import aop.repository.UnitOfWorkManager;
+import aop.repository.WriteBehindUserDao;
+import aop.repository.WriteBehindUserHistoryDao;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * UserDao와 UserHistoryDao를 모두 바꾸므로 user-cache, user-existence-filter, user-history.async와 함께 켤 수 없다.
+ * ExclusiveFeatureConfig 참고.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "aop.unit-of-work", name = "enabled", havingValue = "true")
+public class UnitOfWorkConfig {
+
+    @Bean
+    public UnitOfWorkManager unitOfWorkManager(final JdbcTemplate jdbcTemplate) {
+        return new UnitOfWorkManager(jdbcTemplate);
+    }
+
+    @Bean
+    @Primary
+    public WriteBehindUserDao writeBehindUserDao(final JdbcTemplate jdbcTemplate, final UnitOfWorkManager unitOfWorkManager) {
+        return new WriteBehindUserDao(jdbcTemplate, unitOfWorkManager);
+    }
+
+    @Bean
+    @Primary
+    public WriteBehindUserHistoryDao writeBehindUserHistoryDao(final JdbcTemplate jdbcTemplate, final UnitOfWorkManager unitOfWorkManager) {
+        return new WriteBehindUserHistoryDao(jdbcTemplate, unitOfWorkManager);
+    }
+}
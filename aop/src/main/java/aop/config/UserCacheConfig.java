@@ -0,0 +1,25 @@
+package aop.config;
+
+import aop.repository.CachingUserDao;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 다른 UserDao 기능(unit-of-work, user-existence-filter)과 함께 켤 수 없다. ExclusiveFeatureConfig 참고.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "aop.user-cache", name = "enabled", havingValue = "true")
+public class UserCacheConfig {
+
+    @Bean
+    @Primary
+    public CachingUserDao cachingUserDao(
+            final JdbcTemplate jdbcTemplate,
+            @Value("${aop.user-cache.maximum-size:10000}") final int maximumSize) {
+        return new CachingUserDao(jdbcTemplate, maximumSize);
+    }
+}
@@ -0,0 +1,26 @@
+package aop.config;
+
+import aop.repository.ExistenceCheckingUserDao;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * user-cache, unit-of-work와 함께 켤 수 없다. ExclusiveFeatureConfig 참고.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "aop.user-existence-filter", name = "enabled", havingValue = "true")
+public class UserExistenceFilterConfig {
+
+    @Bean(initMethod = "warmUp")
+    @Primary
+    public ExistenceCheckingUserDao existenceCheckingUserDao(
+            final JdbcTemplate jdbcTemplate,
+            @Value("${aop.user-existence-filter.expected-insertions:1000000}") final long expectedInsertions,
+            @Value("${aop.user-existence-filter.false-positive-probability:0.01}") final double falsePositiveProbability) {
+        return new ExistenceCheckingUserDao(jdbcTemplate, expectedInsertions, falsePositiveProbability);
+    }
+}
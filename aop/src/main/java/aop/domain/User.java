@@ -2,16 +2,22 @@ package aop.domain;
 
 public class User {
 
-    private Long id;
+    private long id;
     private final String account;
     private String password;
     private final String email;
+    private long version;
 
     public User(long id, String account, String password, String email) {
+        this(id, account, password, email, 0L);
+    }
+
+    public User(long id, String account, String password, String email, long version) {
         this.id = id;
         this.account = account;
         this.password = password;
         this.email = email;
+        this.version = version;
     }
 
     public User(String account, String password, String email) {
@@ -28,6 +34,14 @@ public class User {
         this.password = password;
     }
 
+    public void setId(final long id) {
+        this.id = id;
+    }
+
+    public void increaseVersion() {
+        this.version++;
+    }
+
     public String getAccount() {
         return account;
     }
@@ -44,6 +58,10 @@ public class User {
         return password;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return "User{" +
@@ -51,6 +69,7 @@ public class User {
                 ", account='" + account + '\'' +
                 ", email='" + email + '\'' +
                 ", password='" + password + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
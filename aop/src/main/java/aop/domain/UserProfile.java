@@ -0,0 +1,39 @@
+package aop.domain;
+
+/**
+ * 비밀번호와 version 없이 id, account, email만 담은 사용자 조회 결과.
+ * 목록 화면이나 중복 검사처럼 비밀번호가 필요 없는 대량 조회에서 User 대신 사용한다.
+ */
+public class UserProfile {
+
+    private final long id;
+    private final String account;
+    private final String email;
+
+    public UserProfile(final long id, final String account, final String email) {
+        this.id = id;
+        this.account = account;
+        this.email = email;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "UserProfile{" +
+                "id=" + id +
+                ", account='" + account + '\'' +
+                ", email='" + email + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,23 @@
+package aop.domain;
+
+/**
+ * 조회 중인 행 하나를 보여주는 읽기 전용 뷰.
+ * UserDao.scan은 모든 행에 같은 뷰 객체를 넘기고, 각 컬럼은 getter를 호출할 때 현재 행에서 읽는다.
+ * 그래서 콜백 밖으로 뷰를 꺼내면 안 되며, 보관해야 한다면 toUser()로 복사한다.
+ */
+public interface UserView {
+
+    long getId();
+
+    String getAccount();
+
+    String getPassword();
+
+    String getEmail();
+
+    long getVersion();
+
+    default User toUser() {
+        return new User(getId(), getAccount(), getPassword(), getEmail(), getVersion());
+    }
+}
@@ -0,0 +1,80 @@
+package aop.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 나노초 단위 지연 시간을 기록하는 log-linear 히스토그램.
+ *
+ * 값을 2의 거듭제곱 구간으로 나누고, 각 구간을 다시 32개의 하위 구간으로 나눠 약 3% 오차로 기록한다(HdrHistogram과 같은 방식).
+ * 기록은 배열 원소 하나의 원자적 증가뿐이라 락이 없고, 여러 스레드가 동시에 기록해도 된다.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(final long nanos) {
+        final var value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        totalNanos.add(value);
+        if (value > maxNanos.get()) {
+            maxNanos.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public LatencySnapshot snapshot() {
+        final var copied = new long[BUCKET_COUNT];
+        var count = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copied[i] = counts.get(i);
+            count += copied[i];
+        }
+        if (count == 0) {
+            return LatencySnapshot.EMPTY;
+        }
+        return new LatencySnapshot(
+                count,
+                totalNanos.sum() / count,
+                valueAtPercentile(copied, count, 50.0),
+                valueAtPercentile(copied, count, 90.0),
+                valueAtPercentile(copied, count, 99.0),
+                maxNanos.get());
+    }
+
+    private static long valueAtPercentile(final long[] counts, final long totalCount, final double percentile) {
+        final var targetCount = Math.max(1, (long) Math.ceil(totalCount * percentile / 100.0));
+        var accumulated = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            accumulated += counts[i];
+            if (accumulated >= targetCount) {
+                return highestValueAt(i);
+            }
+        }
+        return highestValueAt(counts.length - 1);
+    }
+
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final var shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        final var subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestValueAt(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final var shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        final var subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
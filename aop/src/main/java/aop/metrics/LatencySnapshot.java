@@ -0,0 +1,63 @@
+package aop.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+public class LatencySnapshot {
+
+    static final LatencySnapshot EMPTY = new LatencySnapshot(0, 0, 0, 0, 0, 0);
+
+    private final long count;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    public LatencySnapshot(final long count, final long meanNanos, final long p50Nanos,
+                           final long p90Nanos, final long p99Nanos, final long maxNanos) {
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count +
+                ", mean=" + toMicros(meanNanos) + "us" +
+                ", p50=" + toMicros(p50Nanos) + "us" +
+                ", p90=" + toMicros(p90Nanos) + "us" +
+                ", p99=" + toMicros(p99Nanos) + "us" +
+                ", max=" + toMicros(maxNanos) + "us";
+    }
+
+    private static long toMicros(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,113 @@
+package aop.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 트랜잭션 어드바이스가 적용된 메서드별로 트랜잭션 시작, 메서드 본문, 커밋, 롤백에 걸린 시간을 모은다.
+ */
+public class TransactionMetrics implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionMetrics.class);
+
+    public enum Phase {
+        BEGIN,
+        BODY,
+        COMMIT,
+        ROLLBACK
+    }
+
+    private final Map<Method, MethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public MethodMetrics forMethod(final Method method) {
+        final var metrics = methodMetrics.get(method);
+        if (metrics != null) {
+            return metrics;
+        }
+        return methodMetrics.computeIfAbsent(method, ignored -> new MethodMetrics());
+    }
+
+    /**
+     * 메서드 이름("클래스.메서드(파라미터 타입)")별, 단계별 스냅샷. 히스토그램은 누적되며 스냅샷을 만들어도 초기화되지 않는다.
+     */
+    public Map<String, Map<Phase, LatencySnapshot>> snapshot() {
+        final var snapshot = new TreeMap<String, Map<Phase, LatencySnapshot>>();
+        methodMetrics.forEach((method, metrics) -> snapshot.put(nameOf(method), metrics.snapshot()));
+        return snapshot;
+    }
+
+    /**
+     * 오버로드된 메서드가 같은 이름으로 합쳐지지 않도록 파라미터 타입까지 붙인다. 예: "UserDao.update(TransactionContext, User)"
+     */
+    public static String nameOf(final Method method) {
+        final var parameterTypes = Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", "));
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "(" + parameterTypes + ")";
+    }
+
+    public synchronized void logPeriodically(final Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "transaction-metrics-logger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::logSnapshot, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void logSnapshot() {
+        snapshot().forEach((method, phases) ->
+                phases.forEach((phase, latency) -> {
+                    if (latency.getCount() > 0) {
+                        log.info("{} {} : {}", method, phase, latency);
+                    }
+                }));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    public static class MethodMetrics {
+
+        private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+
+        private MethodMetrics() {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+
+        public void record(final Phase phase, final long nanos) {
+            histograms[phase.ordinal()].record(nanos);
+        }
+
+        private Map<Phase, LatencySnapshot> snapshot() {
+            final var snapshot = new EnumMap<Phase, LatencySnapshot>(Phase.class);
+            for (final Phase phase : Phase.values()) {
+                snapshot.put(phase, histograms[phase.ordinal()].snapshot());
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package aop.repository;
+
+import aop.domain.UserHistory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 변경 이력을 트랜잭션마다 모아 JDBC 배치로 기록하는 UserHistoryDao.
+ *
+ * BEFORE_COMMIT: 커밋 직전에 같은 커넥션으로 배치 insert 한다. 이력은 트랜잭션과 함께 커밋되거나 롤백된다.
+ * AFTER_COMMIT: 커밋이 끝난 뒤 이력을 큐에 넣고, 백그라운드 writer가 batchSize 또는 flushInterval 기준으로 배치 insert 한다.
+ * 커밋 지연은 줄어들지만 writer가 기록하기 전에 프로세스가 죽으면 이력이 유실될 수 있다.
+ */
+public class AsyncUserHistoryDao extends UserHistoryDao implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncUserHistoryDao.class);
+
+    public enum FlushPolicy {
+        BEFORE_COMMIT,
+        AFTER_COMMIT
+    }
+
+    private final FlushPolicy flushPolicy;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<UserHistory> queue;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    public AsyncUserHistoryDao(final JdbcTemplate jdbcTemplate,
+                               final FlushPolicy flushPolicy,
+                               final int capacity,
+                               final int batchSize,
+                               final Duration flushInterval) {
+        super(jdbcTemplate);
+        this.flushPolicy = flushPolicy;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::runWriter, "user-history-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void log(final UserHistory userHistory) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            currentTransactionBuffer().add(userHistory);
+            return;
+        }
+        if (flushPolicy == FlushPolicy.BEFORE_COMMIT) {
+            super.log(userHistory);
+            return;
+        }
+        enqueue(userHistory);
+    }
+
+    /**
+     * 버퍼는 트랜잭션 동기화 객체에 보관한다. REQUIRES_NEW로 새 트랜잭션을 시작하면 바깥 트랜잭션의 동기화는 일시 중지되므로
+     * 안쪽 트랜잭션은 자기 버퍼를 따로 만들고, 바깥 버퍼에 이력을 섞지 않는다.
+     */
+    private List<UserHistory> currentTransactionBuffer() {
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof BufferingSynchronization
+                    && ((BufferingSynchronization) synchronization).owner() == this) {
+                return ((BufferingSynchronization) synchronization).buffer;
+            }
+        }
+        final var synchronization = new BufferingSynchronization();
+        TransactionSynchronizationManager.registerSynchronization(synchronization);
+        return synchronization.buffer;
+    }
+
+    /**
+     * 큐가 가득 차면 writer가 비울 때까지 호출한 스레드를 대기시킨다.
+     * close() 이후에는 writer가 없으므로 큐에 넣지 않고 바로 기록한다.
+     */
+    private void enqueue(final UserHistory userHistory) {
+        try {
+            while (running) {
+                if (queue.offer(userHistory, flushIntervalNanos, TimeUnit.NANOSECONDS)) {
+                    // 넣는 사이에 close()가 끝났다면 writer가 가져가지 못했을 수 있으므로 남아 있으면 직접 기록한다.
+                    if (!running && queue.remove(userHistory)) {
+                        super.log(userHistory);
+                    }
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("user history dropped by interrupt : userId={}", userHistory.getUserId());
+            return;
+        }
+        super.log(userHistory);
+    }
+
+    private void runWriter() {
+        final var batch = new ArrayList<UserHistory>(batchSize);
+        var lastFlushedAt = System.nanoTime();
+        while (running) {
+            try {
+                final var userHistory = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (userHistory != null) {
+                    batch.add(userHistory);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // close()가 poll 대기를 깨운 것이다. 인터럽트 상태를 남기면 남은 이력을 기록하는 JDBC 호출이 실패할 수 있으므로 다시 설정하지 않는다.
+                break;
+            }
+
+            final var now = System.nanoTime();
+            if (batch.size() >= batchSize || (!batch.isEmpty() && now - lastFlushedAt >= flushIntervalNanos)) {
+                flush(batch);
+                lastFlushedAt = now;
+            }
+        }
+        queue.drainTo(batch);
+        flush(batch);
+    }
+
+    private void flush(final List<UserHistory> batch) {
+        try {
+            logAll(batch);
+        } catch (RuntimeException e) {
+            log.error("failed to write {} user histories", batch.size(), e);
+        }
+        batch.clear();
+    }
+
+    /**
+     * writer를 멈추고 큐에 남은 이력을 모두 기록한다.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join();
+    }
+
+    private class BufferingSynchronization implements TransactionSynchronization {
+
+        private final List<UserHistory> buffer = new ArrayList<>();
+
+        AsyncUserHistoryDao owner() {
+            return AsyncUserHistoryDao.this;
+        }
+
+        @Override
+        public void beforeCommit(final boolean readOnly) {
+            if (flushPolicy == FlushPolicy.BEFORE_COMMIT) {
+                logAll(buffer);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (flushPolicy == FlushPolicy.AFTER_COMMIT) {
+                buffer.forEach(AsyncUserHistoryDao.this::enqueue);
+            }
+        }
+    }
+}
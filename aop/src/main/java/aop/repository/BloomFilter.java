@@ -0,0 +1,90 @@
+package aop.repository;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 키용 Bloom filter. mightContain이 false면 한 번도 put 하지 않은 키이고, true면 put 했을 수도 있는 키다.
+ *
+ * expectedInsertions개를 넣었을 때 오탐률이 falsePositiveProbability가 되도록 비트 수와 해시 함수 수를 정한다.
+ * 그보다 많이 넣으면 오탐률이 올라가지만 false negative는 생기지 않는다.
+ * 비트 배열은 AtomicLongArray라서 여러 스레드가 락 없이 동시에 put, mightContain 할 수 있다.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(final long expectedInsertions, final double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive : " + expectedInsertions);
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("falsePositiveProbability must be in (0, 1) : " + falsePositiveProbability);
+        }
+        final var bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact((bits + Long.SIZE - 1) / Long.SIZE));
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(final String key) {
+        final var hash = hash(key);
+        final var hash1 = (int) hash;
+        final var hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            final var bitIndex = indexOf(hash1, hash2, i);
+            final var mask = 1L << bitIndex;
+            final var wordIndex = (int) (bitIndex >>> 6);
+            if ((words.get(wordIndex) & mask) == 0) {
+                words.getAndAccumulate(wordIndex, mask, (word, bit) -> word | bit);
+            }
+        }
+    }
+
+    public boolean mightContain(final String key) {
+        final var hash = hash(key);
+        final var hash1 = (int) hash;
+        final var hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            final var bitIndex = indexOf(hash1, hash2, i);
+            if ((words.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 두 해시 값의 선형 결합으로 hashCount개의 해시 함수를 흉내 낸다(Kirsch-Mitzenmacher).
+     */
+    private long indexOf(final int hash1, final int hash2, final int i) {
+        final var combined = hash1 + (long) i * hash2;
+        return (combined & Long.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * FNV-1a로 문자를 섞은 뒤 MurmurHash3의 finalizer로 비트를 고르게 퍼뜨린다.
+     */
+    private static long hash(final String key) {
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+}
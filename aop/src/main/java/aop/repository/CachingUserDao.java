@@ -0,0 +1,241 @@
+package aop.repository;
+
+import aop.TransactionContext;
+import aop.domain.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * findById, findByAccount 결과를 메모리에 보관하는 UserDao.
+ *
+ * 캐시는 maximumSize 개까지 보관하고 가장 오래 사용하지 않은 사용자부터 제거한다(LRU).
+ * 트랜잭션 안에서 update 한 사용자는 그 트랜잭션이 끝날 때까지 캐시를 거치지 않으며,
+ * 트랜잭션이 끝나면(커밋, 롤백 모두) 캐시에서 제거한다. 그래서 커밋되지 않은 값이 다른 트랜잭션에 보이지 않는다.
+ */
+public class CachingUserDao extends UserDao {
+
+    private final Object lock = new Object();
+    private final Map<Long, User> usersById;
+    private final Map<String, Long> idsByAccount = new HashMap<>();
+    private long invalidationCount;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public CachingUserDao(final JdbcTemplate jdbcTemplate, final int maximumSize) {
+        super(jdbcTemplate);
+        this.usersById = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, User> eldest) {
+                if (size() <= maximumSize) {
+                    return false;
+                }
+                idsByAccount.remove(eldest.getValue().getAccount());
+                evictionCount.increment();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public void update(final User user) {
+        super.update(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            bindCurrentTransactionWrites().add(user.getId());
+            return;
+        }
+        invalidate(Set.of(user.getId()));
+    }
+
+    @Override
+    public void updateAll(final Collection<User> users) {
+        super.updateAll(users);
+        final var ids = users.stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            bindCurrentTransactionWrites().addAll(ids);
+            return;
+        }
+        invalidate(ids);
+    }
+
+    /**
+     * TransactionContext로 전달된 트랜잭션은 TransactionSynchronizationManager에 등록되지 않아 커밋 시점을 알 수 없으므로 바로 무효화한다.
+     */
+    @Override
+    public void update(final TransactionContext context, final User user) {
+        super.update(context, user);
+        invalidate(Set.of(user.getId()));
+    }
+
+    @Override
+    public User findById(final Long id) {
+        if (!isWrittenInCurrentTransaction(id)) {
+            synchronized (lock) {
+                final var cached = usersById.get(id);
+                if (cached != null) {
+                    hitCount.increment();
+                    return copyOf(cached);
+                }
+            }
+        }
+        return load(() -> super.findById(id));
+    }
+
+    @Override
+    public User findByAccount(final String account) {
+        synchronized (lock) {
+            final var id = idsByAccount.get(account);
+            final var cached = id == null ? null : usersById.get(id);
+            if (cached != null && !isWrittenInCurrentTransaction(id)) {
+                hitCount.increment();
+                return copyOf(cached);
+            }
+        }
+        return load(() -> super.findByAccount(account));
+    }
+
+    /**
+     * DB에서 읽는 동안 다른 트랜잭션이 커밋해서 캐시를 무효화했다면, 읽어온 값은 이미 오래된 값일 수 있으므로 캐시에 넣지 않는다.
+     */
+    private User load(final Supplier<User> loader) {
+        missCount.increment();
+        final long loadedAt;
+        synchronized (lock) {
+            loadedAt = invalidationCount;
+        }
+
+        final var user = loader.get();
+        if (isWrittenInCurrentTransaction(user.getId())) {
+            return user;
+        }
+        synchronized (lock) {
+            if (loadedAt == invalidationCount) {
+                usersById.put(user.getId(), copyOf(user));
+                idsByAccount.put(user.getAccount(), user.getId());
+            }
+        }
+        return user;
+    }
+
+    private void invalidate(final Set<Long> ids) {
+        synchronized (lock) {
+            invalidationCount++;
+            for (final Long id : ids) {
+                final var removed = usersById.remove(id);
+                if (removed != null) {
+                    idsByAccount.remove(removed.getAccount());
+                }
+            }
+        }
+    }
+
+    private boolean isWrittenInCurrentTransaction(final long id) {
+        return findCurrentTransactionWrites().contains(id);
+    }
+
+    private Set<Long> findCurrentTransactionWrites() {
+        final var synchronization = findCurrentSynchronization();
+        if (synchronization == null) {
+            return Collections.emptySet();
+        }
+        return synchronization.writes;
+    }
+
+    /**
+     * 쓴 id 목록은 트랜잭션 동기화 객체에 보관한다. bindResource로 묶은 리소스는 REQUIRES_NEW에서 보류되지 않아
+     * 안쪽 트랜잭션이 바깥 트랜잭션의 목록에 섞이므로, 동기화 객체와 함께 보류되고 복원되도록 한다.
+     */
+    private Set<Long> bindCurrentTransactionWrites() {
+        final var synchronization = findCurrentSynchronization();
+        if (synchronization != null) {
+            return synchronization.writes;
+        }
+        final var newSynchronization = new InvalidationSynchronization();
+        TransactionSynchronizationManager.registerSynchronization(newSynchronization);
+        return newSynchronization.writes;
+    }
+
+    private InvalidationSynchronization findCurrentSynchronization() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof InvalidationSynchronization
+                    && ((InvalidationSynchronization) synchronization).owner() == this) {
+                return (InvalidationSynchronization) synchronization;
+            }
+        }
+        return null;
+    }
+
+    private class InvalidationSynchronization implements TransactionSynchronization {
+
+        private final Set<Long> writes = new HashSet<>();
+
+        CachingUserDao owner() {
+            return CachingUserDao.this;
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            invalidate(writes);
+        }
+    }
+
+    private static User copyOf(final User user) {
+        return new User(user.getId(), user.getAccount(), user.getPassword(), user.getEmail(), user.getVersion());
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+
+    public static class CacheStatistics {
+
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+
+        public CacheStatistics(final long hitCount, final long missCount, final long evictionCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheStatistics{" +
+                    "hitCount=" + hitCount +
+                    ", missCount=" + missCount +
+                    ", evictionCount=" + evictionCount +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package aop.repository;
+
+import aop.domain.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * existsByAccount, existsByEmail 앞에 Bloom filter를 두는 UserDao.
+ *
+ * warmUp으로 users 테이블의 account, email을 모두 필터에 넣고, 이후 insert, update 하는 값은 DB에 쓰기 전에 필터에 먼저 넣는다.
+ * 그래서 필터에 없는 값은 DB에도 없다고 보고 쿼리 없이 false를 돌려준다. 필터에 있을 수도 있다고 나오면 DB에서 확인한다.
+ * 롤백된 insert나 바뀌기 전 값은 필터에 남아 오탐이 될 뿐이므로 결과가 틀리지는 않는다.
+ * 다른 프로세스가 같은 테이블에 직접 insert 하면 필터가 알 수 없으므로, 이 DAO를 거쳐서만 쓰는 경우에 사용한다.
+ */
+public class ExistenceCheckingUserDao extends UserDao {
+
+    private static final Logger log = LoggerFactory.getLogger(ExistenceCheckingUserDao.class);
+
+    private final BloomFilter accounts;
+    private final BloomFilter emails;
+
+    private final LongAdder filteredCount = new LongAdder();
+    private final LongAdder databaseCheckCount = new LongAdder();
+    private final LongAdder falsePositiveCount = new LongAdder();
+
+    public ExistenceCheckingUserDao(final JdbcTemplate jdbcTemplate,
+                                    final long expectedInsertions,
+                                    final double falsePositiveProbability) {
+        super(jdbcTemplate);
+        this.accounts = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        this.emails = new BloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    public void warmUp() {
+        final var count = new LongAdder();
+        forEach(user -> {
+            remember(user);
+            count.increment();
+        });
+        log.info("existence filter warmed up with {} users ({} bits, {} hashes)", count.sum(), accounts.getBitCount(), accounts.getHashCount());
+    }
+
+    @Override
+    public void insert(final User user) {
+        remember(user);
+        super.insert(user);
+    }
+
+    @Override
+    public void insertAll(final Collection<User> users, final int batchSize) {
+        users.forEach(this::remember);
+        super.insertAll(users, batchSize);
+    }
+
+    @Override
+    public void update(final User user) {
+        remember(user);
+        super.update(user);
+    }
+
+    @Override
+    public void updateAll(final Collection<User> users) {
+        users.forEach(this::remember);
+        super.updateAll(users);
+    }
+
+    @Override
+    public boolean existsByAccount(final String account) {
+        if (!accounts.mightContain(account)) {
+            filteredCount.increment();
+            return false;
+        }
+        return countDatabaseCheck(super.existsByAccount(account));
+    }
+
+    @Override
+    public boolean existsByEmail(final String email) {
+        if (!emails.mightContain(email)) {
+            filteredCount.increment();
+            return false;
+        }
+        return countDatabaseCheck(super.existsByEmail(email));
+    }
+
+    private boolean countDatabaseCheck(final boolean exists) {
+        databaseCheckCount.increment();
+        if (!exists) {
+            falsePositiveCount.increment();
+        }
+        return exists;
+    }
+
+    private void remember(final User user) {
+        accounts.put(user.getAccount());
+        emails.put(user.getEmail());
+    }
+
+    public FilterStatistics getStatistics() {
+        return new FilterStatistics(filteredCount.sum(), databaseCheckCount.sum(), falsePositiveCount.sum());
+    }
+
+    public static class FilterStatistics {
+
+        private final long filteredCount;
+        private final long databaseCheckCount;
+        private final long falsePositiveCount;
+
+        public FilterStatistics(final long filteredCount, final long databaseCheckCount, final long falsePositiveCount) {
+            this.filteredCount = filteredCount;
+            this.databaseCheckCount = databaseCheckCount;
+            this.falsePositiveCount = falsePositiveCount;
+        }
+
+        /**
+         * 필터만으로 없다고 판단해서 DB를 조회하지 않은 횟수.
+         */
+        public long getFilteredCount() {
+            return filteredCount;
+        }
+
+        public long getDatabaseCheckCount() {
+            return databaseCheckCount;
+        }
+
+        /**
+         * 필터는 있을 수도 있다고 했지만 DB에는 없었던 횟수.
+         */
+        public long getFalsePositiveCount() {
+            return falsePositiveCount;
+        }
+
+        /**
+         * 실제로 없는 값을 물어본 횟수 중 오탐 비율.
+         */
+        public double getFalsePositiveRate() {
+            final var negatives = filteredCount + falsePositiveCount;
+            return negatives == 0 ? 0 : (double) falsePositiveCount / negatives;
+        }
+
+        @Override
+        public String toString() {
+            return "FilterStatistics{" +
+                    "filteredCount=" + filteredCount +
+                    ", databaseCheckCount=" + databaseCheckCount +
+                    ", falsePositiveCount=" + falsePositiveCount +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package aop.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 많은 행을 쓰는 작업을 키 범위로 나눠 여러 커넥션에서 동시에 실행한다.
+ *
+ * 입력을 key 순서로 정렬한 뒤 워커 수만큼 연속된 구간(파티션)으로 나누고, 파티션마다 별도 트랜잭션에서 operation을 실행한다.
+ * 워커 수는 커넥션 풀 크기를 넘지 않는다(HikariDataSource일 때). 워커 하나가 트랜잭션 하나, 즉 커넥션 하나를 점유하기 때문이다.
+ * 한 파티션이 실패해도 그 파티션만 롤백되고 나머지는 커밋된다. 실패는 Result에 파티션별로 모아서 돌려준다.
+ */
+public class PartitionedBulkExecutor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedBulkExecutor.class);
+
+    private final PlatformTransactionManager transactionManager;
+    private final int workers;
+    private final ExecutorService executor;
+
+    public PartitionedBulkExecutor(final PlatformTransactionManager transactionManager,
+                                   final DataSource dataSource,
+                                   final int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive : " + workers);
+        }
+        this.transactionManager = transactionManager;
+        this.workers = Math.min(workers, maximumPoolSizeOf(dataSource));
+        final var threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.workers, runnable -> {
+            final var thread = new Thread(runnable, "bulk-partition-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 풀 크기는 HikariDataSource일 때만 알 수 있다. 다른 DataSource(다른 풀 구현이나 HikariDataSource를 감싼 프록시 포함)는
+     * 요청한 워커 수를 그대로 사용하므로, 호출하는 쪽에서 workers를 풀 크기 이하로 넘겨야 한다.
+     */
+    private static int maximumPoolSizeOf(final DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            return ((HikariDataSource) dataSource).getMaximumPoolSize();
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    public <T> Result<T> execute(final List<T> items, final Comparator<? super T> key, final Consumer<List<T>> operation) {
+        final var partitions = partition(items, key);
+        final var futures = new ArrayList<Future<?>>(partitions.size());
+        for (final List<T> partition : partitions) {
+            futures.add(executor.submit(() -> executeInTransaction(partition, operation)));
+        }
+
+        final var failures = new ArrayList<PartitionFailure<T>>();
+        var committedCount = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+                committedCount += partitions.get(i).size();
+            } catch (ExecutionException e) {
+                log.warn("partition {} failed", i, e.getCause());
+                failures.add(new PartitionFailure<>(i, partitions.get(i), e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.subList(i, futures.size()).forEach(future -> future.cancel(true));
+                throw new IllegalStateException("interrupted while waiting for partitions", e);
+            }
+        }
+        return new Result<>(committedCount, failures);
+    }
+
+    private <T> List<List<T>> partition(final List<T> items, final Comparator<? super T> key) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        final var sorted = new ArrayList<>(items);
+        sorted.sort(key);
+
+        final var partitionCount = Math.min(workers, sorted.size());
+        final var partitions = new ArrayList<List<T>>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            final var from = (int) ((long) sorted.size() * i / partitionCount);
+            final var to = (int) ((long) sorted.size() * (i + 1) / partitionCount);
+            partitions.add(sorted.subList(from, to));
+        }
+        return partitions;
+    }
+
+    private <T> void executeInTransaction(final List<T> partition, final Consumer<List<T>> operation) {
+        final var transactionStatus = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            operation.accept(partition);
+        } catch (Throwable e) {
+            // Error로 끝나도 롤백해야 트랜잭션과 커넥션이 워커 스레드에 남아 다음 파티션이 참여하지 않는다.
+            transactionManager.rollback(transactionStatus);
+            throw e;
+        }
+        transactionManager.commit(transactionStatus);
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    public static class Result<T> {
+
+        private final int committedCount;
+        private final List<PartitionFailure<T>> failures;
+
+        private Result(final int committedCount, final List<PartitionFailure<T>> failures) {
+            this.committedCount = committedCount;
+            this.failures = Collections.unmodifiableList(failures);
+        }
+
+        public int getCommittedCount() {
+            return committedCount;
+        }
+
+        public List<PartitionFailure<T>> getFailures() {
+            return failures;
+        }
+
+        public boolean hasFailures() {
+            return !failures.isEmpty();
+        }
+    }
+
+    /**
+     * 롤백된 파티션. items를 그대로 다시 실행하면 해당 파티션만 재처리할 수 있다.
+     */
+    public static class PartitionFailure<T> {
+
+        private final int partitionIndex;
+        private final List<T> items;
+        private final Throwable cause;
+
+        private PartitionFailure(final int partitionIndex, final List<T> items, final Throwable cause) {
+            this.partitionIndex = partitionIndex;
+            this.items = Collections.unmodifiableList(items);
+            this.cause = cause;
+        }
+
+        public int getPartitionIndex() {
+            return partitionIndex;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        public Throwable getCause() {
+            return cause;
+        }
+    }
+}
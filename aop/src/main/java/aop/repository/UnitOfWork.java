@@ -0,0 +1,67 @@
+package aop.repository;
+
+import aop.domain.User;
+import aop.domain.UserHistory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 트랜잭션 동안 읽은 사용자와 변경된 사용자, 새로 기록할 이력을 모아두는 객체.
+ * 같은 id의 사용자는 트랜잭션 안에서 항상 같은 인스턴스로 돌려준다(identity map).
+ */
+public class UnitOfWork {
+
+    private final Map<Long, User> users = new HashMap<>();
+    private final Map<Long, User> dirtyUsers = new LinkedHashMap<>();
+    private final List<UserHistory> newHistories = new ArrayList<>();
+
+    public User findUser(final long id) {
+        return users.get(id);
+    }
+
+    /**
+     * 트랜잭션 안에서 account를 바꿨을 수 있으므로 등록된 인스턴스의 현재 account로 찾는다.
+     */
+    public User findUserByAccount(final String account) {
+        for (final User user : users.values()) {
+            if (user.getAccount().equals(account)) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 이미 등록된 사용자가 있으면 DB에서 새로 읽은 값 대신 등록된 인스턴스를 돌려준다. 아직 flush 하지 않은 변경을 잃지 않기 위해서다.
+     */
+    public User registerClean(final User user) {
+        final var registered = users.putIfAbsent(user.getId(), user);
+        if (registered != null) {
+            return registered;
+        }
+        return user;
+    }
+
+    public void registerDirty(final User user) {
+        users.put(user.getId(), user);
+        dirtyUsers.put(user.getId(), user);
+    }
+
+    public void registerNew(final UserHistory userHistory) {
+        newHistories.add(userHistory);
+    }
+
+    /**
+     * 변경된 사용자와 새 이력을 테이블마다 JDBC 배치 한 번으로 기록한다.
+     */
+    void flush(final UserDao userDao, final UserHistoryDao userHistoryDao) {
+        userDao.updateAll(List.copyOf(dirtyUsers.values()));
+        dirtyUsers.clear();
+        userHistoryDao.logAll(List.copyOf(newHistories));
+        newHistories.clear();
+    }
+}
@@ -0,0 +1,59 @@
+package aop.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션마다 UnitOfWork를 하나씩 만들어 바인딩하고, 커밋 직전에 flush 한다.
+ * flush는 트랜잭션의 커넥션에서 실행되므로, flush가 실패하면 트랜잭션 전체가 롤백된다.
+ */
+public class UnitOfWorkManager {
+
+    private final UserDao userDao;
+    private final UserHistoryDao userHistoryDao;
+
+    public UnitOfWorkManager(final JdbcTemplate jdbcTemplate) {
+        this.userDao = new UserDao(jdbcTemplate);
+        this.userHistoryDao = new UserHistoryDao(jdbcTemplate);
+    }
+
+    /**
+     * 진행 중인 트랜잭션이 없으면 null을 반환한다.
+     * UnitOfWork는 트랜잭션 동기화 객체에 보관하므로, REQUIRES_NEW로 시작한 트랜잭션은 바깥 트랜잭션과 다른 UnitOfWork를 사용한다.
+     */
+    public UnitOfWork currentUnitOfWork() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof UnitOfWorkSynchronization
+                    && ((UnitOfWorkSynchronization) synchronization).owner() == this) {
+                return ((UnitOfWorkSynchronization) synchronization).unitOfWork;
+            }
+        }
+        final var synchronization = new UnitOfWorkSynchronization();
+        TransactionSynchronizationManager.registerSynchronization(synchronization);
+        return synchronization.unitOfWork;
+    }
+
+    private class UnitOfWorkSynchronization implements TransactionSynchronization {
+
+        private final UnitOfWork unitOfWork = new UnitOfWork();
+
+        UnitOfWorkManager owner() {
+            return UnitOfWorkManager.this;
+        }
+
+        /**
+         * 읽기 전용 트랜잭션에서는 기록하지 않는다. 조회한 인스턴스를 수정했더라도 DB에 쓰지 않는다.
+         */
+        @Override
+        public void beforeCommit(final boolean readOnly) {
+            if (readOnly) {
+                return;
+            }
+            unitOfWork.flush(userDao, userHistoryDao);
+        }
+    }
+}
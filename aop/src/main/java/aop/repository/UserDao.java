@@ -1,15 +1,52 @@
 package aop.repository;
 
+import aop.DataAccessException;
+import aop.OptimisticLockException;
+import aop.TransactionContext;
 import aop.domain.User;
+import aop.domain.UserProfile;
+import aop.domain.UserView;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public class UserDao {
 
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+    private static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * UserDao의 조회 쿼리는 모두 id, account, password, email, version 순서로 컬럼을 가져온다.
+     * 컬럼 위치가 고정되어 있으므로 이름 대신 인덱스로 읽고, 매퍼 인스턴스 하나를 모든 조회에서 재사용한다.
+     */
+    static final RowMapper<User> USER_ROW_MAPPER = (final var rs, final var i) -> new User(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getLong(5));
+
+    private static final RowMapper<UserProfile> USER_PROFILE_ROW_MAPPER = (final var rs, final var i) -> new UserProfile(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3));
+
     private final JdbcTemplate jdbcTemplate;
 
     public UserDao(final JdbcTemplate jdbcTemplate) {
@@ -21,31 +58,255 @@ public class UserDao {
         jdbcTemplate.update(sql, user.getAccount(), user.getPassword(), user.getEmail());
     }
 
+    public void insertAll(final Collection<User> users) {
+        insertAll(users, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * batchSize 단위로 나눠 JDBC 배치로 insert 하고, 생성된 id를 각 User에 채워 넣는다.
+     * 진행 중인 트랜잭션이 있으면 같은 커넥션을 사용한다.
+     */
+    public void insertAll(final Collection<User> users, final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive : " + batchSize);
+        }
+        final var sql = "insert into users (account, password, email) values (?, ?, ?)";
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (final var pstmt = connection.prepareStatement(sql, new String[]{"id"})) {
+                final var chunk = new ArrayList<User>(batchSize);
+                for (final User user : users) {
+                    pstmt.setString(1, user.getAccount());
+                    pstmt.setString(2, user.getPassword());
+                    pstmt.setString(3, user.getEmail());
+                    pstmt.addBatch();
+                    chunk.add(user);
+                    if (chunk.size() == batchSize) {
+                        executeBatch(pstmt, chunk);
+                    }
+                }
+                executeBatch(pstmt, chunk);
+            }
+            return null;
+        });
+    }
+
+    private static void executeBatch(final PreparedStatement pstmt, final List<User> chunk) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        pstmt.executeBatch();
+        try (final var generatedKeys = pstmt.getGeneratedKeys()) {
+            for (final User user : chunk) {
+                if (!generatedKeys.next()) {
+                    throw new DataAccessException("generated key is missing : " + user.getAccount());
+                }
+                user.setId(generatedKeys.getLong(1));
+            }
+        }
+        chunk.clear();
+    }
+
+    /**
+     * 조회한 시점의 version과 DB의 version이 같을 때만 수정한다.
+     * 그 사이에 다른 트랜잭션이 먼저 수정했다면 OptimisticLockException이 발생한다.
+     */
     public void update(final User user) {
-        final var sql = "update users set account = ?, password = ?, email = ? where id = ?";
-        jdbcTemplate.update(sql, user.getAccount(), user.getPassword(), user.getEmail(), user.getId());
+        final var sql = "update users set account = ?, password = ?, email = ?, version = version + 1 where id = ? and version = ?";
+        final var updated = jdbcTemplate.update(sql,
+                user.getAccount(), user.getPassword(), user.getEmail(), user.getId(), user.getVersion());
+        if (updated == 0) {
+            throw new OptimisticLockException("user was modified concurrently : id=" + user.getId());
+        }
+        user.increaseVersion();
+    }
+
+    public void update(final TransactionContext context, final User user) {
+        final var sql = "update users set account = ?, password = ?, email = ?, version = version + 1 where id = ? and version = ?";
+        final var updated = context.update(sql,
+                user.getAccount(), user.getPassword(), user.getEmail(), user.getId(), user.getVersion());
+        if (updated == 0) {
+            throw new OptimisticLockException("user was modified concurrently : id=" + user.getId());
+        }
+        user.increaseVersion();
+    }
+
+    /**
+     * update와 같은 조건부 update를 하나의 JDBC 배치로 실행한다.
+     * 한 건이라도 version이 맞지 않으면 OptimisticLockException이 발생한다.
+     */
+    public void updateAll(final Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        final var sql = "update users set account = ?, password = ?, email = ?, version = version + 1 where id = ? and version = ?";
+        final var batchArgs = users.stream()
+                .map(user -> new Object[]{
+                        user.getAccount(),
+                        user.getPassword(),
+                        user.getEmail(),
+                        user.getId(),
+                        user.getVersion()
+                })
+                .collect(Collectors.toList());
+        final var updatedCounts = jdbcTemplate.batchUpdate(sql, batchArgs);
+
+        var index = 0;
+        for (final User user : users) {
+            if (updatedCounts[index++] == 0) {
+                throw new OptimisticLockException("user was modified concurrently : id=" + user.getId());
+            }
+        }
+        users.forEach(User::increaseVersion);
     }
 
     public List<User> findAll() {
-        final var sql = "select id, account, password, email from users";
-        return jdbcTemplate.query(sql, createRowMapper());
+        final var sql = "select id, account, password, email, version from users";
+        return jdbcTemplate.query(sql, USER_ROW_MAPPER);
+    }
+
+    /**
+     * 전체 조회 결과를 List로 만들지 않고 forward-only 커서로 한 행씩 읽는다.
+     * 반환된 Stream은 반드시 닫아야 하며(try-with-resources), 트랜잭션 안에서 호출하면 트랜잭션의 커넥션을 사용한다.
+     */
+    public Stream<User> streamAll() {
+        final var sql = "select id, account, password, email, version from users";
+        return jdbcTemplate.queryForStream(createCursorStatement(sql), USER_ROW_MAPPER);
+    }
+
+    public void forEach(final Consumer<User> action) {
+        final var sql = "select id, account, password, email, version from users";
+        jdbcTemplate.query(createCursorStatement(sql), (RowCallbackHandler) rs -> action.accept(USER_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * 비밀번호 없이 id, account, email 컬럼만 조회한다.
+     */
+    public List<UserProfile> findAllProfiles() {
+        final var sql = "select id, account, email from users";
+        return jdbcTemplate.query(sql, USER_PROFILE_ROW_MAPPER);
+    }
+
+    /**
+     * forEach와 같이 커서로 전체를 읽지만, 행마다 User를 만들지 않고 하나의 UserView를 재사용한다.
+     * 컬럼은 getter를 호출할 때 읽으므로 사용하지 않는 컬럼은 String으로 만들어지지 않는다.
+     */
+    public void scan(final Consumer<UserView> action) {
+        final var sql = "select id, account, password, email, version from users";
+        jdbcTemplate.query(createCursorStatement(sql), (ResultSetExtractor<Void>) rs -> {
+            final var view = new ResultSetUserView(rs);
+            while (rs.next()) {
+                action.accept(view);
+            }
+            return null;
+        });
+    }
+
+    private static PreparedStatementCreator createCursorStatement(final String sql) {
+        return connection -> {
+            final var pstmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(DEFAULT_FETCH_SIZE);
+            return pstmt;
+        };
     }
 
     public User findById(final Long id) {
-        final var sql = "select id, account, password, email from users where id = ?";
-        return jdbcTemplate.queryForObject(sql, createRowMapper(), id);
+        final var sql = "select id, account, password, email, version from users where id = ?";
+        return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, id);
+    }
+
+    public User findById(final TransactionContext context, final Long id) {
+        final var sql = "select id, account, password, email, version from users where id = ?";
+        return context.queryForObject(sql, USER_ROW_MAPPER, id);
+    }
+
+    /**
+     * ids에 해당하는 사용자를 in 조건 쿼리 한 번으로 조회한다. 없는 id는 결과에서 빠진다.
+     * ids 개수만큼 바인드 변수가 생기므로 호출하는 쪽에서 한 번에 넘기는 개수를 제한한다.
+     */
+    public List<User> findAllById(final Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        final var placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        final var sql = "select id, account, password, email, version from users where id in (" + placeholders + ")";
+        return jdbcTemplate.query(sql, USER_ROW_MAPPER, ids.toArray());
+    }
+
+    public User findByIdForUpdate(final Long id) {
+        final var sql = "select id, account, password, email, version from users where id = ? for update";
+        return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, id);
     }
 
     public User findByAccount(final String account) {
-        final var sql = "select id, account, password, email from users where account = ?";
-        return jdbcTemplate.queryForObject(sql, createRowMapper(), account);
+        final var sql = "select id, account, password, email, version from users where account = ?";
+        return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, account);
+    }
+
+    public User findByEmail(final String email) {
+        final var sql = "select id, account, password, email, version from users where email = ?";
+        return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, email);
+    }
+
+    /**
+     * findByAccount와 달리 사용자가 없어도 예외가 발생하지 않는다. 가입 시 중복 검사처럼 없는 경우가 흔할 때 사용한다.
+     */
+    public boolean existsByAccount(final String account) {
+        final var sql = "select exists (select 1 from users where account = ?)";
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, account));
+    }
+
+    public boolean existsByEmail(final String email) {
+        final var sql = "select exists (select 1 from users where email = ?)";
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, email));
     }
 
-    private static RowMapper<User> createRowMapper() {
-        return (final var rs, final var i) -> new User(
-                rs.getLong("id"),
-                rs.getString("account"),
-                rs.getString("password"),
-                rs.getString("email"));
+    private static class ResultSetUserView implements UserView {
+
+        private final ResultSet rs;
+
+        ResultSetUserView(final ResultSet rs) {
+            this.rs = rs;
+        }
+
+        @Override
+        public long getId() {
+            try {
+                return rs.getLong(1);
+            } catch (SQLException e) {
+                throw new DataAccessException(e);
+            }
+        }
+
+        @Override
+        public String getAccount() {
+            return getString(2);
+        }
+
+        @Override
+        public String getPassword() {
+            return getString(3);
+        }
+
+        @Override
+        public String getEmail() {
+            return getString(4);
+        }
+
+        @Override
+        public long getVersion() {
+            try {
+                return rs.getLong(5);
+            } catch (SQLException e) {
+                throw new DataAccessException(e);
+            }
+        }
+
+        private String getString(final int columnIndex) {
+            try {
+                return rs.getString(columnIndex);
+            } catch (SQLException e) {
+                throw new DataAccessException(e);
+            }
+        }
     }
 }
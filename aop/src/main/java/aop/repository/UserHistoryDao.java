@@ -1,12 +1,28 @@
 package aop.repository;
 
+import aop.TransactionContext;
 import aop.domain.UserHistory;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Repository
 public class UserHistoryDao {
 
+    private static final RowMapper<UserHistory> USER_HISTORY_ROW_MAPPER = (final var rs, final var i) -> new UserHistory(
+            rs.getLong(1),
+            rs.getLong(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getObject(6, LocalDateTime.class),
+            rs.getString(7));
+
     private final JdbcTemplate jdbcTemplate;
 
     public UserHistoryDao(final JdbcTemplate jdbcTemplate) {
@@ -24,4 +40,68 @@ public class UserHistoryDao {
                 userHistory.getCreateBy()
         );
     }
+
+    public void log(final TransactionContext context, final UserHistory userHistory) {
+        final var sql = "insert into user_history (user_id, account, password, email, created_at, created_by) values (?, ?, ?, ?, ?, ?)";
+        context.update(sql,
+                userHistory.getUserId(),
+                userHistory.getAccount(),
+                userHistory.getPassword(),
+                userHistory.getEmail(),
+                userHistory.getCreatedAt(),
+                userHistory.getCreateBy()
+        );
+    }
+
+    public void logAll(final List<UserHistory> userHistories) {
+        if (userHistories.isEmpty()) {
+            return;
+        }
+        final var sql = "insert into user_history (user_id, account, password, email, created_at, created_by) values (?, ?, ?, ?, ?, ?)";
+        final var batchArgs = userHistories.stream()
+                .map(userHistory -> new Object[]{
+                        userHistory.getUserId(),
+                        userHistory.getAccount(),
+                        userHistory.getPassword(),
+                        userHistory.getEmail(),
+                        userHistory.getCreatedAt(),
+                        userHistory.getCreateBy()
+                })
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
+    /**
+     * 사용자의 최근 변경 이력을 최신순으로 limit 건까지 조회한다. (user_id, created_at desc) 인덱스만 읽고 멈춘다.
+     */
+    public List<UserHistory> findLatestByUserId(final long userId, final int limit) {
+        final var sql = "select id, user_id, account, password, email, created_at, created_by from user_history "
+                + "where user_id = ? order by created_at desc, id desc limit ?";
+        return jdbcTemplate.query(sql, USER_HISTORY_ROW_MAPPER, userId, limit);
+    }
+
+    /**
+     * cutoff 이전에 기록된 이력을 batchSize 건씩 나눠 지우고, 지운 건수를 돌려준다.
+     * 배치마다 자동 커밋되므로 한 번에 잠그는 행이 batchSize 건을 넘지 않고, 그 사이에 다른 트랜잭션의 insert와 조회가 진행된다.
+     * 트랜잭션 안에서 호출하면 모든 배치의 잠금이 커밋까지 유지되므로 허용하지 않는다.
+     * batchSize가 0 이하면 한 번에 지우는 건수가 batchSize보다 작아지지 않아 끝나지 않으므로 허용하지 않는다.
+     */
+    public long purgeOlderThan(final LocalDateTime cutoff, final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive : " + batchSize);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("purgeOlderThan must not run inside a transaction");
+        }
+        final var sql = "delete from user_history where id in "
+                + "(select id from user_history where created_at < ? order by created_at limit ?)";
+        var purged = 0L;
+        while (true) {
+            final var deleted = jdbcTemplate.update(sql, cutoff, batchSize);
+            purged += deleted;
+            if (deleted < batchSize) {
+                return purged;
+            }
+        }
+    }
 }
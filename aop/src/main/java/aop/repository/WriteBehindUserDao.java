@@ -0,0 +1,94 @@
+package aop.repository;
+
+import aop.domain.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 트랜잭션 안에서는 update, updateAll을 바로 실행하지 않고 UnitOfWork에 등록해뒀다가 커밋 직전에 배치로 기록한다.
+ * findById, findByAccount, findAllById는 UnitOfWork에 있는 인스턴스를 먼저 사용한다.
+ * findAll, streamAll 같은 다른 조회는 아직 flush 되지 않은 변경을 보지 못한다.
+ */
+public class WriteBehindUserDao extends UserDao {
+
+    private final UnitOfWorkManager unitOfWorkManager;
+
+    public WriteBehindUserDao(final JdbcTemplate jdbcTemplate, final UnitOfWorkManager unitOfWorkManager) {
+        super(jdbcTemplate);
+        this.unitOfWorkManager = unitOfWorkManager;
+    }
+
+    @Override
+    public void update(final User user) {
+        final var unitOfWork = unitOfWorkManager.currentUnitOfWork();
+        if (unitOfWork == null) {
+            super.update(user);
+            return;
+        }
+        unitOfWork.registerDirty(user);
+    }
+
+    @Override
+    public void updateAll(final Collection<User> users) {
+        final var unitOfWork = unitOfWorkManager.currentUnitOfWork();
+        if (unitOfWork == null) {
+            super.updateAll(users);
+            return;
+        }
+        users.forEach(unitOfWork::registerDirty);
+    }
+
+    @Override
+    public User findById(final Long id) {
+        final var unitOfWork = unitOfWorkManager.currentUnitOfWork();
+        if (unitOfWork == null) {
+            return super.findById(id);
+        }
+        final var user = unitOfWork.findUser(id);
+        if (user != null) {
+            return user;
+        }
+        return unitOfWork.registerClean(super.findById(id));
+    }
+
+    @Override
+    public User findByAccount(final String account) {
+        final var unitOfWork = unitOfWorkManager.currentUnitOfWork();
+        if (unitOfWork == null) {
+            return super.findByAccount(account);
+        }
+        final var user = unitOfWork.findUserByAccount(account);
+        if (user != null) {
+            return user;
+        }
+        return unitOfWork.registerClean(super.findByAccount(account));
+    }
+
+    /**
+     * UnitOfWork에 없는 id만 DB에서 읽는다. 결과는 ids 순서를 따르고, 없는 id는 결과에서 빠진다.
+     */
+    @Override
+    public List<User> findAllById(final Collection<Long> ids) {
+        final var unitOfWork = unitOfWorkManager.currentUnitOfWork();
+        if (unitOfWork == null) {
+            return super.findAllById(ids);
+        }
+        final var missingIds = ids.stream()
+                .filter(id -> unitOfWork.findUser(id) == null)
+                .collect(Collectors.toList());
+        super.findAllById(missingIds).forEach(unitOfWork::registerClean);
+
+        final var users = new ArrayList<User>(ids.size());
+        for (final Long id : ids) {
+            final var user = unitOfWork.findUser(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+}
@@ -0,0 +1,27 @@
+package aop.repository;
+
+import aop.domain.UserHistory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 트랜잭션 안에서 기록한 이력을 UnitOfWork에 모아뒀다가 커밋 직전에 배치로 insert 한다.
+ */
+public class WriteBehindUserHistoryDao extends UserHistoryDao {
+
+    private final UnitOfWorkManager unitOfWorkManager;
+
+    public WriteBehindUserHistoryDao(final JdbcTemplate jdbcTemplate, final UnitOfWorkManager unitOfWorkManager) {
+        super(jdbcTemplate);
+        this.unitOfWorkManager = unitOfWorkManager;
+    }
+
+    @Override
+    public void log(final UserHistory userHistory) {
+        final var unitOfWork = unitOfWorkManager.currentUnitOfWork();
+        if (unitOfWork == null) {
+            super.log(userHistory);
+            return;
+        }
+        unitOfWork.registerNew(userHistory);
+    }
+}
@@ -0,0 +1,32 @@
+package aop.service;
+
+import aop.TransactionContext;
+import aop.Transactional;
+import aop.domain.User;
+import aop.domain.UserHistory;
+import aop.repository.UserDao;
+import aop.repository.UserHistoryDao;
+
+public class AppContextUserService implements ContextUserService {
+
+    private final UserDao userDao;
+    private final UserHistoryDao userHistoryDao;
+
+    public AppContextUserService(final UserDao userDao, final UserHistoryDao userHistoryDao) {
+        this.userDao = userDao;
+        this.userHistoryDao = userHistoryDao;
+    }
+
+    @Transactional(readOnly = true)
+    public User findById(final TransactionContext context, final long id) {
+        return userDao.findById(context, id);
+    }
+
+    @Transactional
+    public void changePassword(final TransactionContext context, final long id, final String newPassword, final String createBy) {
+        final var user = findById(context, id);
+        user.changePassword(newPassword);
+        userDao.update(context, user);
+        userHistoryDao.log(context, new UserHistory(user, createBy));
+    }
+}
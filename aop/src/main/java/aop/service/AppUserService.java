@@ -6,6 +6,9 @@ import aop.domain.UserHistory;
 import aop.repository.UserDao;
 import aop.repository.UserHistoryDao;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 public class AppUserService implements UserService {
 
     private final UserDao userDao;
@@ -16,7 +19,7 @@ public class AppUserService implements UserService {
         this.userHistoryDao = userHistoryDao;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public User findById(final long id) {
         return userDao.findById(id);
     }
@@ -27,10 +30,28 @@ public class AppUserService implements UserService {
     }
 
     @Transactional
+    public void insertAll(final Collection<User> users) {
+        userDao.insertAll(users);
+    }
+
+    @Transactional(retryOnConflict = 3)
     public void changePassword(final long id, final String newPassword, final String createBy) {
         final var user = findById(id);
         user.changePassword(newPassword);
         userDao.update(user);
         userHistoryDao.log(new UserHistory(user, createBy));
     }
+
+    @Transactional(retryOnConflict = 3)
+    public int changePasswords(final Collection<Long> ids, final String newPassword, final String createBy) {
+        final var users = userDao.findAllById(ids);
+        final var userHistories = new ArrayList<UserHistory>(users.size());
+        for (final User user : users) {
+            user.changePassword(newPassword);
+            userHistories.add(new UserHistory(user, createBy));
+        }
+        userDao.updateAll(users);
+        userHistoryDao.logAll(userHistories);
+        return users.size();
+    }
 }
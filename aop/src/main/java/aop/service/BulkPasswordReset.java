@@ -0,0 +1,42 @@
+package aop.service;
+
+import aop.BulkUpdateException;
+
+import java.util.List;
+
+/**
+ * 많은 사용자의 비밀번호를 chunkSize 단위로 나눠서 바꾼다.
+ * 청크마다 UserService.changePasswords를 한 번씩 호출하므로, 트랜잭션 프록시로 감싼 UserService를 넘기면 청크마다 따로 커밋된다.
+ * 청크 하나가 실패하면 BulkUpdateException이 발생하고, 이미 커밋된 청크는 그대로 남는다.
+ * 예외의 resumeIndex를 resume에 넘기면 실패한 청크부터 이어서 처리한다.
+ */
+public class BulkPasswordReset {
+
+    private final UserService userService;
+    private final int chunkSize;
+
+    public BulkPasswordReset(final UserService userService, final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive : " + chunkSize);
+        }
+        this.userService = userService;
+        this.chunkSize = chunkSize;
+    }
+
+    public int changePasswords(final List<Long> ids, final String newPassword, final String createBy) {
+        return resume(ids, 0, newPassword, createBy);
+    }
+
+    public int resume(final List<Long> ids, final int fromIndex, final String newPassword, final String createBy) {
+        var changed = 0;
+        for (int from = fromIndex; from < ids.size(); from += chunkSize) {
+            final var to = Math.min(from + chunkSize, ids.size());
+            try {
+                changed += userService.changePasswords(ids.subList(from, to), newPassword, createBy);
+            } catch (RuntimeException e) {
+                throw new BulkUpdateException(from, changed, e);
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,15 @@
+package aop.service;
+
+import aop.TransactionContext;
+import aop.domain.User;
+
+/**
+ * 트랜잭션 컨텍스트를 첫 번째 인자로 명시적으로 전달받는 UserService.
+ * 프록시를 통해 호출할 때 context로 null을 넘기면 새 트랜잭션을 시작하고, 값을 넘기면 그 트랜잭션에 참여한다.
+ */
+public interface ContextUserService {
+
+    User findById(final TransactionContext context, final long id);
+
+    void changePassword(final TransactionContext context, final long id, final String newPassword, final String createBy);
+}
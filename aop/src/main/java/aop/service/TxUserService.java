@@ -5,6 +5,8 @@ import aop.domain.User;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 
+import java.util.Collection;
+
 public class TxUserService implements UserService {
 
     private final PlatformTransactionManager transactionManager;
@@ -25,6 +27,18 @@ public class TxUserService implements UserService {
         userService.insert(user);
     }
 
+    @Override
+    public void insertAll(final Collection<User> users) {
+        final var transactionStatus = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            userService.insertAll(users);
+        } catch (RuntimeException e) {
+            transactionManager.rollback(transactionStatus);
+            throw new DataAccessException(e);
+        }
+        transactionManager.commit(transactionStatus);
+    }
+
     @Override
     public void changePassword(final long id, final String newPassword, final String createBy) {
         /* ===== 트랜잭션 영역 ===== */
@@ -45,4 +59,18 @@ public class TxUserService implements UserService {
         transactionManager.commit(transactionStatus);
         /* ===== 트랜잭션 영역 ===== */
     }
+
+    @Override
+    public int changePasswords(final Collection<Long> ids, final String newPassword, final String createBy) {
+        final var transactionStatus = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        final int changed;
+        try {
+            changed = userService.changePasswords(ids, newPassword, createBy);
+        } catch (RuntimeException e) {
+            transactionManager.rollback(transactionStatus);
+            throw new DataAccessException(e);
+        }
+        transactionManager.commit(transactionStatus);
+        return changed;
+    }
 }
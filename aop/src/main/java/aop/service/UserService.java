@@ -3,10 +3,20 @@ package aop.service;
 
 import aop.domain.User;
 
+import java.util.Collection;
+
 public interface UserService {
 
     User findById(final long id);
     void insert(final User user);
 
+    void insertAll(final Collection<User> users);
+
     void changePassword(final long id, final String newPassword, final String createBy);
+
+    /**
+     * ids에 해당하는 사용자의 비밀번호를 한 번에 바꾸고 바뀐 사용자 수를 돌려준다. 없는 id는 건너뛴다.
+     * 많은 사용자를 나눠서 처리할 때는 BulkPasswordReset을 사용한다.
+     */
+    int changePasswords(final Collection<Long> ids, final String newPassword, final String createBy);
 }
@@ -3,6 +3,7 @@ create table if not exists users (
     account varchar(100) not null,
     password varchar(100) not null,
     email varchar(100) not null,
+    version bigint default 0 not null,
     primary key(id)
 );
 
@@ -16,3 +17,8 @@ create table if not exists user_history (
     created_by varchar(100) not null,
     primary key(id)
 );
+
+create index if not exists idx_users_account on users (account);
+create index if not exists idx_users_email on users (email);
+create index if not exists idx_user_history_user_id_created_at on user_history (user_id, created_at desc);
+create index if not exists idx_user_history_created_at on user_history (created_at);
@@ -0,0 +1,39 @@
+package aop.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExclusiveFeatureConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ExclusiveFeatureConfig.class, UserCacheConfig.class, UserExistenceFilterConfig.class,
+                    UnitOfWorkConfig.class, AsyncUserHistoryConfig.class);
+
+    @Test
+    void testSingleFeatureStarts() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(ExclusiveFeatureConfig.class)
+                .withPropertyValues("aop.unit-of-work.enabled=true", "aop.user-cache.enabled=false")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+
+    @Test
+    void testTwoUserDaoFeaturesFailStartup() {
+        contextRunner.withPropertyValues("aop.user-cache.enabled=true", "aop.user-existence-filter.enabled=true")
+                .run(context -> assertThat(context).getFailure()
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("UserDao")
+                        .hasMessageContaining("aop.user-cache.enabled")
+                        .hasMessageContaining("aop.user-existence-filter.enabled"));
+    }
+
+    @Test
+    void testTwoUserHistoryDaoFeaturesFailStartup() {
+        contextRunner.withPropertyValues("aop.unit-of-work.enabled=true", "aop.user-history.async.enabled=true")
+                .run(context -> assertThat(context).getFailure()
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("UserHistoryDao"));
+    }
+}
@@ -0,0 +1,101 @@
+package aop.repository;
+
+import aop.domain.UserHistory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static aop.repository.AsyncUserHistoryDao.FlushPolicy.AFTER_COMMIT;
+import static aop.repository.AsyncUserHistoryDao.FlushPolicy.BEFORE_COMMIT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AsyncUserHistoryDaoTest {
+
+    private static final long USER_ID = 2_000_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager platformTransactionManager;
+
+    @Test
+    void testBeforeCommitDiscardsBufferOnRollback() throws Exception {
+        final var userId = USER_ID;
+        try (final var dao = new AsyncUserHistoryDao(jdbcTemplate, BEFORE_COMMIT, 100, 10, Duration.ofMillis(10))) {
+            new TransactionTemplate(platformTransactionManager).executeWithoutResult(status -> {
+                dao.log(history(userId, "rolledBack"));
+                status.setRollbackOnly();
+            });
+
+            assertThat(dao.findLatestByUserId(userId, 10)).isEmpty();
+        }
+    }
+
+    @Test
+    void testRequiresNewUsesItsOwnBuffer() throws Exception {
+        final var userId = USER_ID + 1;
+        try (final var dao = new AsyncUserHistoryDao(jdbcTemplate, BEFORE_COMMIT, 100, 10, Duration.ofMillis(10))) {
+            final var requiresNew = new TransactionTemplate(platformTransactionManager);
+            requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+            new TransactionTemplate(platformTransactionManager).executeWithoutResult(status -> {
+                dao.log(history(userId, "outer"));
+                requiresNew.executeWithoutResult(inner -> dao.log(history(userId, "inner")));
+                status.setRollbackOnly();
+            });
+
+            assertThat(dao.findLatestByUserId(userId, 10)).extracting(UserHistory::getPassword)
+                    .containsExactly("inner");
+        }
+    }
+
+    @Test
+    void testAfterCommitFlushesThroughWriter() throws Exception {
+        final var userId = USER_ID + 2;
+        try (final var dao = new AsyncUserHistoryDao(jdbcTemplate, AFTER_COMMIT, 100, 10, Duration.ofMillis(10))) {
+            new TransactionTemplate(platformTransactionManager).executeWithoutResult(status ->
+                    dao.log(history(userId, "committed")));
+
+            assertThat(awaitHistories(dao, userId, 1)).extracting(UserHistory::getPassword)
+                    .containsExactly("committed");
+        }
+    }
+
+    @Test
+    void testCloseDrainsQueue() throws Exception {
+        final var userId = USER_ID + 3;
+        final var dao = new AsyncUserHistoryDao(jdbcTemplate, AFTER_COMMIT, 100, 1_000, Duration.ofMinutes(1));
+        dao.log(history(userId, "queued"));
+        assertThat(dao.findLatestByUserId(userId, 10)).isEmpty();
+
+        dao.close();
+        assertThat(dao.findLatestByUserId(userId, 10)).extracting(UserHistory::getPassword)
+                .containsExactly("queued");
+
+        dao.log(history(userId, "afterClose"));
+        assertThat(dao.findLatestByUserId(userId, 10)).hasSize(2);
+    }
+
+    private static List<UserHistory> awaitHistories(final UserHistoryDao dao, final long userId, final int expected) throws InterruptedException {
+        final var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        var histories = dao.findLatestByUserId(userId, 10);
+        while (histories.size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            histories = dao.findLatestByUserId(userId, 10);
+        }
+        return histories;
+    }
+
+    private static UserHistory history(final long userId, final String password) {
+        return new UserHistory(null, userId, "async", password, "async@woowahan.com", "gugu");
+    }
+}
@@ -0,0 +1,109 @@
+package aop.repository;
+
+import aop.domain.User;
+import aop.service.AppUserService;
+import aop.service.TxUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CachingUserDaoTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager platformTransactionManager;
+
+    @Autowired
+    private UserHistoryDao userHistoryDao;
+
+    private CachingUserDao cachingUserDao;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cachingUserDao = new CachingUserDao(jdbcTemplate, 2);
+        user = new User("cache", "password", "cache@woowahan.com");
+        cachingUserDao.insertAll(List.of(user));
+    }
+
+    @Test
+    void testReadThrough() {
+        cachingUserDao.findById(user.getId());
+        cachingUserDao.findById(user.getId());
+        cachingUserDao.findByAccount(user.getAccount());
+
+        final var statistics = cachingUserDao.getStatistics();
+        assertThat(statistics.getMissCount()).isEqualTo(1);
+        assertThat(statistics.getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testUncommittedUpdateIsNotCached() {
+        cachingUserDao.findById(user.getId());
+
+        new TransactionTemplate(platformTransactionManager).executeWithoutResult(status -> {
+            final var found = cachingUserDao.findById(user.getId());
+            found.changePassword("uncommitted");
+            cachingUserDao.update(found);
+
+            assertThat(cachingUserDao.findById(user.getId()).getPassword()).isEqualTo("uncommitted");
+            status.setRollbackOnly();
+        });
+
+        assertThat(cachingUserDao.findById(user.getId()).getPassword()).isEqualTo("password");
+    }
+
+    @Test
+    void testChangePasswordsInvalidatesCache() {
+        cachingUserDao.findById(user.getId());
+        final var userService = new TxUserService(platformTransactionManager, new AppUserService(cachingUserDao, userHistoryDao));
+
+        userService.changePasswords(List.of(user.getId()), "bulk", "admin");
+
+        assertThat(cachingUserDao.findById(user.getId()).getPassword()).isEqualTo("bulk");
+    }
+
+    @Test
+    void testRequiresNewUpdateIsEvictedOnInnerCommit() {
+        final var outerUser = new User("cache-outer", "password", "cache-outer@woowahan.com");
+        cachingUserDao.insertAll(List.of(outerUser));
+        cachingUserDao.findById(user.getId());
+        cachingUserDao.findById(outerUser.getId());
+
+        final var requiresNew = new TransactionTemplate(platformTransactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        new TransactionTemplate(platformTransactionManager).executeWithoutResult(outer -> {
+            final var outerFound = cachingUserDao.findById(outerUser.getId());
+            outerFound.changePassword("outer");
+            cachingUserDao.update(outerFound);
+
+            requiresNew.executeWithoutResult(inner -> {
+                final var innerFound = cachingUserDao.findById(user.getId());
+                innerFound.changePassword("inner");
+                cachingUserDao.update(innerFound);
+            });
+
+            assertThat(findByIdInOtherThread(user.getId()).getPassword()).isEqualTo("inner");
+            assertThat(findByIdInOtherThread(outerUser.getId()).getPassword()).isEqualTo("password");
+        });
+
+        assertThat(findByIdInOtherThread(outerUser.getId()).getPassword()).isEqualTo("outer");
+    }
+
+    private User findByIdInOtherThread(final Long id) {
+        return CompletableFuture.supplyAsync(() -> cachingUserDao.findById(id)).join();
+    }
+}
@@ -0,0 +1,54 @@
+package aop.repository;
+
+import aop.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ExistenceCheckingUserDaoTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserDao userDao;
+
+    private ExistenceCheckingUserDao existenceCheckingUserDao;
+
+    @BeforeEach
+    void setUp() {
+        userDao.insert(new User("existing", "password", "existing@woowahan.com"));
+        existenceCheckingUserDao = new ExistenceCheckingUserDao(jdbcTemplate, 1_000, 0.01);
+        existenceCheckingUserDao.warmUp();
+    }
+
+    @Test
+    void testWarmedUpFromUsersTable() {
+        assertThat(existenceCheckingUserDao.existsByAccount("existing")).isTrue();
+        assertThat(existenceCheckingUserDao.existsByEmail("existing@woowahan.com")).isTrue();
+    }
+
+    @Test
+    void testInsertedUserIsVisible() {
+        existenceCheckingUserDao.insert(new User("inserted", "password", "inserted@woowahan.com"));
+
+        assertThat(existenceCheckingUserDao.existsByAccount("inserted")).isTrue();
+        assertThat(existenceCheckingUserDao.existsByEmail("inserted@woowahan.com")).isTrue();
+    }
+
+    @Test
+    void testMissingUserIsFilteredWithoutQuery() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(existenceCheckingUserDao.existsByAccount("missing" + i)).isFalse();
+        }
+
+        final var statistics = existenceCheckingUserDao.getStatistics();
+        assertThat(statistics.getFilteredCount() + statistics.getFalsePositiveCount()).isEqualTo(100);
+        assertThat(statistics.getFilteredCount()).isGreaterThan(90);
+    }
+}
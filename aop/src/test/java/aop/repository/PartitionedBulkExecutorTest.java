@@ -0,0 +1,104 @@
+package aop.repository;
+
+import aop.DataAccessException;
+import aop.domain.User;
+import aop.domain.UserHistory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PartitionedBulkExecutorTest {
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private UserHistoryDao userHistoryDao;
+
+    @Autowired
+    private PlatformTransactionManager platformTransactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void testInsertInParallel() {
+        final var users = createUsers("parallel");
+
+        try (final var executor = new PartitionedBulkExecutor(platformTransactionManager, dataSource, 4)) {
+            final var result = executor.execute(users, Comparator.comparing(User::getAccount), this::insertWithHistory);
+
+            assertThat(result.hasFailures()).isFalse();
+            assertThat(result.getCommittedCount()).isEqualTo(users.size());
+        }
+        assertThat(userDao.findAllById(idsOf(users))).hasSize(users.size());
+    }
+
+    @Test
+    void testRollbackOnlyFailedPartition() {
+        final var users = createUsers("failing");
+        final var failingAccount = users.get(50).getAccount();
+
+        try (final var executor = new PartitionedBulkExecutor(platformTransactionManager, dataSource, 4)) {
+            final var result = executor.execute(users, Comparator.comparing(User::getAccount), partition -> {
+                insertWithHistory(partition);
+                if (partition.stream().anyMatch(user -> user.getAccount().equals(failingAccount))) {
+                    throw new DataAccessException("partition failed");
+                }
+            });
+
+            assertThat(result.getCommittedCount()).isEqualTo(75);
+            assertThat(result.getFailures()).hasSize(1);
+            final var failure = result.getFailures().get(0);
+            assertThat(failure.getPartitionIndex()).isEqualTo(2);
+            assertThat(userDao.findAllById(idsOf(failure.getItems()))).isEmpty();
+        }
+    }
+
+    @Test
+    void testErrorDoesNotLeakTransactionToNextPartition() {
+        final var users = createUsers("error");
+
+        try (final var executor = new PartitionedBulkExecutor(platformTransactionManager, dataSource, 1)) {
+            final var failed = executor.execute(users.subList(0, 50), Comparator.comparing(User::getAccount), partition -> {
+                insertWithHistory(partition);
+                throw new AssertionError("partition failed");
+            });
+            assertThat(failed.getFailures()).hasSize(1);
+
+            final var result = executor.execute(users.subList(50, 100), Comparator.comparing(User::getAccount), this::insertWithHistory);
+            assertThat(result.hasFailures()).isFalse();
+        }
+        assertThat(userDao.findAllById(idsOf(users.subList(0, 50)))).isEmpty();
+        assertThat(userDao.findAllById(idsOf(users.subList(50, 100)))).hasSize(50);
+    }
+
+    private void insertWithHistory(final List<User> partition) {
+        userDao.insertAll(partition);
+        userHistoryDao.logAll(partition.stream()
+                .map(user -> new UserHistory(user, "bulk"))
+                .collect(Collectors.toList()));
+    }
+
+    private static List<User> createUsers(final String prefix) {
+        return IntStream.range(0, 100)
+                .mapToObj(i -> new User(String.format("%s-%03d", prefix, i), "password", prefix + i + "@woowahan.com"))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> idsOf(final List<User> users) {
+        return users.stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,94 @@
+package aop.repository;
+
+import aop.OptimisticLockException;
+import aop.domain.User;
+import aop.domain.UserProfile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserDaoTest {
+
+    @Autowired
+    private UserDao userDao;
+
+    @Test
+    void testInsertAll() {
+        final var users = List.of(
+                new User("batch1", "password", "batch1@woowahan.com"),
+                new User("batch2", "password", "batch2@woowahan.com"),
+                new User("batch3", "password", "batch3@woowahan.com"));
+
+        userDao.insertAll(users, 2);
+
+        for (final User user : users) {
+            final var actual = userDao.findById(user.getId());
+            assertThat(actual.getAccount()).isEqualTo(user.getAccount());
+        }
+    }
+
+    @Test
+    void testInsertAllRejectsNonPositiveBatchSize() {
+        final var users = List.of(new User("batch0", "password", "batch0@woowahan.com"));
+
+        assertThrows(IllegalArgumentException.class, () -> userDao.insertAll(users, 0));
+        assertThat(userDao.existsByAccount("batch0")).isFalse();
+    }
+
+    @Test
+    void testStreamAll() {
+        userDao.insert(new User("stream", "password", "stream@woowahan.com"));
+        final var expected = userDao.findAll().stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+
+        try (final var users = userDao.streamAll()) {
+            assertThat(users.map(User::getId)).containsExactlyElementsOf(expected);
+        }
+
+        final var visited = new ArrayList<Long>();
+        userDao.forEach(user -> visited.add(user.getId()));
+        assertThat(visited).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void testScanAndProfiles() {
+        userDao.insert(new User("projection", "password", "projection@woowahan.com"));
+        final var expected = userDao.findAll();
+
+        final var scanned = new ArrayList<User>();
+        userDao.scan(view -> scanned.add(view.toUser()));
+        assertThat(scanned).extracting(User::getId, User::getAccount, User::getPassword)
+                .containsExactlyElementsOf(expected.stream()
+                        .map(user -> tuple(user.getId(), user.getAccount(), user.getPassword()))
+                        .collect(Collectors.toList()));
+
+        assertThat(userDao.findAllProfiles()).extracting(UserProfile::getId, UserProfile::getEmail)
+                .containsExactlyElementsOf(expected.stream()
+                        .map(user -> tuple(user.getId(), user.getEmail()))
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testUpdateWithStaleVersion() {
+        userDao.insert(new User("optimistic", "password", "optimistic@woowahan.com"));
+        final var first = userDao.findByAccount("optimistic");
+        final var second = userDao.findByAccount("optimistic");
+
+        first.changePassword("first");
+        userDao.update(first);
+
+        second.changePassword("second");
+        assertThrows(OptimisticLockException.class, () -> userDao.update(second));
+        assertThat(userDao.findById(first.getId()).getPassword()).isEqualTo("first");
+    }
+}
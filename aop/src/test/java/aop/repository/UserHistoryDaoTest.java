@@ -0,0 +1,64 @@
+package aop.repository;
+
+import aop.domain.UserHistory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserHistoryDaoTest {
+
+    private static final long USER_ID = 1_000_000L;
+
+    @Autowired
+    private UserHistoryDao userHistoryDao;
+
+    @Test
+    void testFindLatestByUserId() {
+        final var now = LocalDateTime.now();
+        userHistoryDao.logAll(IntStream.range(0, 5)
+                .mapToObj(i -> history(USER_ID, "password" + i, now.plusSeconds(i)))
+                .collect(Collectors.toList()));
+
+        final var latest = userHistoryDao.findLatestByUserId(USER_ID, 3);
+
+        assertThat(latest).extracting(UserHistory::getPassword)
+                .containsExactly("password4", "password3", "password2");
+    }
+
+    @Test
+    void testPurgeOlderThanInBatches() {
+        final var userId = USER_ID + 1;
+        final var now = LocalDateTime.now();
+        userHistoryDao.logAll(IntStream.range(0, 7)
+                .mapToObj(i -> history(userId, "old" + i, now.minusDays(30).plusSeconds(i)))
+                .collect(Collectors.toList()));
+        userHistoryDao.logAll(List.of(history(userId, "recent", now)));
+
+        final var purged = userHistoryDao.purgeOlderThan(now.minusDays(1), 2);
+
+        assertThat(purged).isGreaterThanOrEqualTo(7);
+        assertThat(userHistoryDao.findLatestByUserId(userId, 10)).extracting(UserHistory::getPassword)
+                .containsExactly("recent");
+    }
+
+    @Test
+    void testPurgeOlderThanRejectsNonPositiveBatchSize() {
+        final var cutoff = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () -> userHistoryDao.purgeOlderThan(cutoff, 0));
+        assertThrows(IllegalArgumentException.class, () -> userHistoryDao.purgeOlderThan(cutoff, -1));
+    }
+
+    private static UserHistory history(final long userId, final String password, final LocalDateTime createdAt) {
+        return new UserHistory(null, userId, "history", password, "history@woowahan.com", createdAt, "gugu");
+    }
+}
@@ -0,0 +1,142 @@
+package aop.repository;
+
+import aop.domain.User;
+import aop.domain.UserHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WriteBehindUserDaoTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager platformTransactionManager;
+
+    private UserDao userDao;
+    private WriteBehindUserDao writeBehindUserDao;
+    private WriteBehindUserHistoryDao writeBehindUserHistoryDao;
+    private TransactionTemplate transactionTemplate;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        final var unitOfWorkManager = new UnitOfWorkManager(jdbcTemplate);
+        userDao = new UserDao(jdbcTemplate);
+        writeBehindUserDao = new WriteBehindUserDao(jdbcTemplate, unitOfWorkManager);
+        writeBehindUserHistoryDao = new WriteBehindUserHistoryDao(jdbcTemplate, unitOfWorkManager);
+        transactionTemplate = new TransactionTemplate(platformTransactionManager);
+
+        user = new User("writeBehind" + System.nanoTime(), "password", "writeBehind@woowahan.com");
+        userDao.insertAll(List.of(user));
+    }
+
+    @Test
+    void testFlushAtCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            final var found = writeBehindUserDao.findById(user.getId());
+            found.changePassword("flushed");
+            writeBehindUserDao.update(found);
+            writeBehindUserHistoryDao.log(new UserHistory(found, "gugu"));
+
+            assertThat(userDao.findById(user.getId()).getPassword()).isEqualTo("password");
+        });
+
+        assertThat(userDao.findById(user.getId()).getPassword()).isEqualTo("flushed");
+        assertThat(writeBehindUserHistoryDao.findLatestByUserId(user.getId(), 10)).extracting(UserHistory::getPassword)
+                .containsExactly("flushed");
+    }
+
+    @Test
+    void testDiscardOnRollback() {
+        transactionTemplate.executeWithoutResult(status -> {
+            final var found = writeBehindUserDao.findById(user.getId());
+            found.changePassword("discarded");
+            writeBehindUserDao.update(found);
+            writeBehindUserHistoryDao.log(new UserHistory(found, "gugu"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(userDao.findById(user.getId()).getPassword()).isEqualTo("password");
+        assertThat(writeBehindUserHistoryDao.findLatestByUserId(user.getId(), 10)).isEmpty();
+    }
+
+    @Test
+    void testLookupsServedFromUnitOfWork() {
+        transactionTemplate.executeWithoutResult(status -> {
+            final var found = writeBehindUserDao.findById(user.getId());
+            found.changePassword("dirty");
+            writeBehindUserDao.update(found);
+
+            assertThat(writeBehindUserDao.findById(user.getId())).isSameAs(found);
+            assertThat(writeBehindUserDao.findByAccount(user.getAccount())).isSameAs(found);
+            status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void testUpdateAllGoesThroughUnitOfWork() {
+        transactionTemplate.executeWithoutResult(status -> {
+            final var found = writeBehindUserDao.findById(user.getId());
+            final var users = writeBehindUserDao.findAllById(List.of(user.getId()));
+            assertThat(users).containsExactly(found);
+
+            found.changePassword("bulk");
+            writeBehindUserDao.updateAll(users);
+            assertThat(userDao.findById(user.getId()).getPassword()).isEqualTo("password");
+
+            found.changePassword("single");
+            writeBehindUserDao.update(found);
+        });
+
+        final var actual = userDao.findById(user.getId());
+        assertThat(actual.getPassword()).isEqualTo("single");
+        assertThat(actual.getVersion()).isEqualTo(user.getVersion() + 1);
+    }
+
+    @Test
+    void testReadOnlyTransactionIsNotFlushed() {
+        final var readOnly = new TransactionTemplate(platformTransactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            final var found = writeBehindUserDao.findById(user.getId());
+            found.changePassword("readOnly");
+            writeBehindUserDao.update(found);
+        });
+
+        assertThat(userDao.findById(user.getId()).getPassword()).isEqualTo("password");
+    }
+
+    @Test
+    void testRequiresNewUsesItsOwnUnitOfWork() {
+        final var requiresNew = new TransactionTemplate(platformTransactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            final var found = writeBehindUserDao.findById(user.getId());
+            found.changePassword("outer");
+            writeBehindUserDao.update(found);
+
+            requiresNew.executeWithoutResult(inner -> {
+                assertThat(writeBehindUserDao.findById(user.getId())).isNotSameAs(found);
+                writeBehindUserHistoryDao.log(new UserHistory(user, "inner"));
+            });
+            status.setRollbackOnly();
+        });
+
+        assertThat(userDao.findById(user.getId()).getPassword()).isEqualTo("password");
+        assertThat(writeBehindUserHistoryDao.findLatestByUserId(user.getId(), 10)).hasSize(1);
+    }
+}
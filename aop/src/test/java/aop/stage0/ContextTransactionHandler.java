@@ -0,0 +1,95 @@
+package aop.stage0;
+
+import aop.DataAccessException;
+import aop.TransactionAttribute;
+import aop.TransactionContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * TransactionHandler와 같은 역할을 하지만 커넥션을 ThreadLocal에 바인딩하지 않는다.
+ * @Transactional 메서드는 첫 번째 인자로 TransactionContext를 받아야 한다.
+ * 호출자가 context를 넘기면 그 트랜잭션에 참여하고, null을 넘기면 커넥션을 얻어 새 트랜잭션을 시작한 뒤 context를 채워 타겟을 호출한다.
+ */
+public class ContextTransactionHandler implements InvocationHandler {
+
+    private final DataSource dataSource;
+    private final Object target;
+    private final Map<Method, TransactionAttribute> transactionAttributes;
+
+    public ContextTransactionHandler(final DataSource dataSource, final Object target) {
+        this.dataSource = dataSource;
+        this.target = target;
+        this.transactionAttributes = TransactionHandler.resolveTransactionAttributes(target.getClass());
+        for (final Method method : transactionAttributes.keySet()) {
+            final var parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length == 0 || parameterTypes[0] != TransactionContext.class) {
+                throw new IllegalArgumentException("첫 번째 인자가 TransactionContext가 아니다 : " + method);
+            }
+        }
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        final var transactionAttribute = transactionAttributes.get(method);
+        if (transactionAttribute == null || args[0] != null) {
+            return invokeTarget(method, args);
+        }
+
+        try (final var connection = dataSource.getConnection()) {
+            return invokeInTransaction(connection, transactionAttribute, method, args);
+        }
+    }
+
+    private Object invokeInTransaction(final Connection connection,
+                                       final TransactionAttribute transactionAttribute,
+                                       final Method method,
+                                       final Object[] args) throws Throwable {
+        final var autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        if (transactionAttribute.isReadOnly()) {
+            connection.setReadOnly(true);
+        }
+
+        var committed = false;
+        try {
+            args[0] = new TransactionContext(connection);
+            final Object result;
+            try {
+                result = invokeTarget(method, args);
+            } catch (RuntimeException e) {
+                throw new DataAccessException(e);
+            }
+            connection.commit();
+            committed = true;
+            return result;
+        } finally {
+            // setAutoCommit(true)는 열려 있는 트랜잭션을 커밋하므로 Error, 체크 예외도 먼저 롤백한다.
+            if (!committed) {
+                connection.rollback();
+            }
+            resetConnection(connection, autoCommit, transactionAttribute.isReadOnly());
+        }
+    }
+
+    private static void resetConnection(final Connection connection, final boolean autoCommit, final boolean readOnly) throws SQLException {
+        if (readOnly) {
+            connection.setReadOnly(false);
+        }
+        connection.setAutoCommit(autoCommit);
+    }
+
+    private Object invokeTarget(final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
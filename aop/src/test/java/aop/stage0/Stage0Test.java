@@ -1,11 +1,17 @@
 package aop.stage0;
 
+import aop.BulkUpdateException;
 import aop.DataAccessException;
 import aop.StubUserHistoryDao;
+import aop.TransactionContext;
 import aop.domain.User;
+import aop.domain.UserHistory;
 import aop.repository.UserDao;
 import aop.repository.UserHistoryDao;
+import aop.service.AppContextUserService;
 import aop.service.AppUserService;
+import aop.service.BulkPasswordReset;
+import aop.service.ContextUserService;
 import aop.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +19,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -36,6 +52,12 @@ class Stage0Test {
     @Autowired
     private PlatformTransactionManager platformTransactionManager;
 
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         final var user = new User("gugu", "password", "hkkang@woowahan.com");
@@ -45,7 +67,7 @@ class Stage0Test {
     @Test
     void testChangePassword() {
         final var appUserService = new AppUserService(userDao, userHistoryDao);
-        final UserService userService = null;
+        final UserService userService = createProxy(appUserService);
 
         final var newPassword = "qqqqq";
         final var createBy = "gugu";
@@ -59,7 +81,7 @@ class Stage0Test {
     @Test
     void testTransactionRollback() {
         final var appUserService = new AppUserService(userDao, stubUserHistoryDao);
-        final UserService userService = null;
+        final UserService userService = createProxy(appUserService);
 
         final var newPassword = "newPassword";
         final var createBy = "gugu";
@@ -70,4 +92,126 @@ class Stage0Test {
 
         assertThat(actual.getPassword()).isNotEqualTo(newPassword);
     }
+
+    @Test
+    void testChangePasswordWithExplicitContext() {
+        final var appContextUserService = new AppContextUserService(userDao, userHistoryDao);
+        final var userService = (ContextUserService) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[]{ContextUserService.class},
+                new ContextTransactionHandler(dataSource, appContextUserService));
+
+        final var newPassword = "context";
+        final var createBy = "gugu";
+        userService.changePassword(null, 1L, newPassword, createBy);
+
+        final var actual = userService.findById(null, 1L);
+
+        assertThat(actual.getPassword()).isEqualTo(newPassword);
+    }
+
+    @Test
+    void testRollbackOnCheckedExceptionWithExplicitContext() {
+        final var appContextUserService = new AppContextUserService(userDao, userHistoryDao) {
+            @Override
+            public void changePassword(final TransactionContext context, final long id, final String newPassword, final String createBy) {
+                super.changePassword(context, id, newPassword, createBy);
+                sneakyThrow(new IOException("checked"));
+            }
+        };
+        final var userService = (ContextUserService) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[]{ContextUserService.class},
+                new ContextTransactionHandler(dataSource, appContextUserService));
+
+        final var newPassword = "checked";
+        assertThrows(UndeclaredThrowableException.class,
+                () -> userService.changePassword(null, 1L, newPassword, "gugu"));
+
+        final var actual = userService.findById(null, 1L);
+
+        assertThat(actual.getPassword()).isNotEqualTo(newPassword);
+    }
+
+    @Test
+    void testRollbackOnCheckedException() {
+        final var appUserService = new AppUserService(userDao, userHistoryDao) {
+            @Override
+            public void changePassword(final long id, final String newPassword, final String createBy) {
+                super.changePassword(id, newPassword, createBy);
+                sneakyThrow(new IOException("checked"));
+            }
+        };
+        final var userService = createProxy(appUserService);
+
+        final var newPassword = "checkedRollback";
+        assertThrows(UndeclaredThrowableException.class,
+                () -> userService.changePassword(1L, newPassword, "gugu"));
+
+        assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+        assertThat(userService.findById(1L).getPassword()).isNotEqualTo(newPassword);
+    }
+
+    @Test
+    void testChangePasswordsInChunks() {
+        final var ids = insertUsers(5);
+        final var bulkPasswordReset = new BulkPasswordReset(createProxy(new AppUserService(userDao, userHistoryDao)), 2);
+
+        final var changed = bulkPasswordReset.changePasswords(ids, "reset", "admin");
+
+        assertThat(changed).isEqualTo(5);
+        assertThat(userDao.findAllById(ids)).allMatch(user -> user.getPassword().equals("reset"));
+    }
+
+    @Test
+    void testResumeChangePasswordsFromFailedChunk() {
+        final var ids = insertUsers(5);
+        final var failingOnSecondChunk = new UserHistoryDao(jdbcTemplate) {
+            private int calls;
+
+            @Override
+            public void logAll(final List<UserHistory> userHistories) {
+                if (++calls == 2) {
+                    throw new DataAccessException();
+                }
+                super.logAll(userHistories);
+            }
+        };
+        final var bulkPasswordReset = new BulkPasswordReset(createProxy(new AppUserService(userDao, failingOnSecondChunk)), 2);
+
+        final var exception = assertThrows(BulkUpdateException.class,
+                () -> bulkPasswordReset.changePasswords(ids, "reset", "admin"));
+
+        assertThat(exception.getResumeIndex()).isEqualTo(2);
+        assertThat(exception.getCompletedCount()).isEqualTo(2);
+        assertThat(userDao.findById(ids.get(1)).getPassword()).isEqualTo("reset");
+        assertThat(userDao.findById(ids.get(2)).getPassword()).isNotEqualTo("reset");
+
+        final var changed = bulkPasswordReset.resume(ids, exception.getResumeIndex(), "reset", "admin");
+
+        assertThat(changed).isEqualTo(3);
+        assertThat(userDao.findAllById(ids)).allMatch(user -> user.getPassword().equals("reset"));
+    }
+
+    private List<Long> insertUsers(final int count) {
+        final var users = IntStream.range(0, count)
+                .mapToObj(i -> new User("bulk" + i, "password", "bulk" + i + "@woowahan.com"))
+                .collect(Collectors.toList());
+        userDao.insertAll(users);
+        return users.stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> void sneakyThrow(final Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+    private UserService createProxy(final UserService target) {
+        return (UserService) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[]{UserService.class},
+                new TransactionHandler(platformTransactionManager, target));
+    }
 }
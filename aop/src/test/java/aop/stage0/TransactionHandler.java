@@ -1,15 +1,82 @@
 package aop.stage0;
 
+import aop.DataAccessException;
+import aop.TransactionAttribute;
+import aop.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.ClassUtils;
+
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 
 public class TransactionHandler implements InvocationHandler {
 
+    private final PlatformTransactionManager transactionManager;
+    private final Object target;
+    private final Map<Method, TransactionAttribute> transactionAttributes;
+
+    public TransactionHandler(final PlatformTransactionManager transactionManager, final Object target) {
+        this.transactionManager = transactionManager;
+        this.target = target;
+        this.transactionAttributes = resolveTransactionAttributes(target.getClass());
+    }
+
+    /**
+     * 프록시가 노출하는 인터페이스 메서드마다 타겟 클래스의 구현 메서드를 찾아 @Transactional 여부를 미리 확인해둔다.
+     * 프록시 생성 시점에 한 번만 리플렉션을 사용하고, 호출 시점에는 map 조회만 한다.
+     */
+    static Map<Method, TransactionAttribute> resolveTransactionAttributes(final Class<?> targetClass) {
+        final var transactionAttributes = new HashMap<Method, TransactionAttribute>();
+        for (final Class<?> targetInterface : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            for (final Method method : targetInterface.getMethods()) {
+                final var targetMethod = ClassUtils.getMostSpecificMethod(method, targetClass);
+                final var transactional = targetMethod.getAnnotation(Transactional.class);
+                if (transactional != null) {
+                    transactionAttributes.put(method, TransactionAttribute.from(transactional));
+                }
+            }
+        }
+        return Map.copyOf(transactionAttributes);
+    }
+
     /**
      * @Transactional 어노테이션이 존재하는 메서드만 트랜잭션 기능을 적용하도록 만들어보자.
      */
     @Override
     public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-        return null;
+        final var transactionAttribute = transactionAttributes.get(method);
+        if (transactionAttribute == null || transactionAttribute.canSkipTransactionManager()) {
+            return invokeTarget(method, args);
+        }
+
+        final var transactionStatus = transactionManager.getTransaction(transactionAttribute.getDefinition());
+        var committed = false;
+        try {
+            final Object result;
+            try {
+                result = invokeTarget(method, args);
+            } catch (RuntimeException e) {
+                throw new DataAccessException(e);
+            }
+            transactionManager.commit(transactionStatus);
+            committed = true;
+            return result;
+        } finally {
+            // Error, 체크 예외로 끝나도 롤백해야 트랜잭션과 커넥션이 스레드에 남지 않는다.
+            if (!committed && !transactionStatus.isCompleted()) {
+                transactionManager.rollback(transactionStatus);
+            }
+        }
+    }
+
+    private Object invokeTarget(final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
     }
 }
@@ -0,0 +1,51 @@
+package aop.stage1;
+
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+
+import java.lang.reflect.Method;
+
+/**
+ * 프록시 하나의 메서드 하나에 적용되는 어드바이스 체인.
+ * 프록시를 만들 때 미리 만들어두고, 진행 위치는 필드가 아니라 proceed의 인자로 넘기므로 여러 스레드가 함께 사용해도 된다.
+ */
+public final class AdviceChain implements MethodInterceptor {
+
+    private final Object target;
+    private final Method method;
+    private final ChainedAdvice[] advices;
+    private volatile MethodProxy methodProxy;
+
+    AdviceChain(final Object target, final Method method, final ChainedAdvice[] advices) {
+        this.target = target;
+        this.method = method;
+        this.advices = advices;
+    }
+
+    @Override
+    public Object intercept(final Object proxy, final Method method, final Object[] args, final MethodProxy methodProxy) throws Throwable {
+        if (this.methodProxy == null) {
+            this.methodProxy = methodProxy;
+        }
+        return proceed(0, args);
+    }
+
+    public Object proceed(final int index, final Object[] args) throws Throwable {
+        if (index < advices.length) {
+            return advices[index].invoke(this, index + 1, args);
+        }
+        return methodProxy.invoke(target, args);
+    }
+
+    public Object getTarget() {
+        return target;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public int size() {
+        return advices.length;
+    }
+}
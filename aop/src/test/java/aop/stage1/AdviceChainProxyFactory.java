@@ -0,0 +1,92 @@
+package aop.stage1;
+
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Dispatcher;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.core.OrderComparator;
+import org.springframework.objenesis.Objenesis;
+import org.springframework.objenesis.SpringObjenesis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ChainedAdvisor 목록으로 프록시를 만드는 팩토리.
+ * AdvisorProxyFactory와 같이 타겟 클래스마다 디스패치 테이블을 한 번 만들고, 메서드마다 어드바이스를 order 순서로 정렬해 bind 해둔다.
+ * 프록시 하나를 만들 때 메서드마다 AdviceChain을 하나씩 만들어 두므로, 호출 시점에는 체인 배열을 따라가기만 한다.
+ */
+public class AdviceChainProxyFactory {
+
+    private static final int DISPATCH_TO_TARGET = 0;
+
+    private final Objenesis objenesis = new SpringObjenesis();
+    private final Map<Class<?>, ProxyClass> proxyClasses = new ConcurrentHashMap<>();
+
+    private final List<ChainedAdvisor> advisors;
+
+    public AdviceChainProxyFactory(final List<ChainedAdvisor> advisors) {
+        final var sorted = new ArrayList<>(advisors);
+        OrderComparator.sort(sorted);
+        this.advisors = List.copyOf(sorted);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T createProxy(final T target) {
+        final var proxyClass = proxyClasses.computeIfAbsent(target.getClass(), this::generateProxyClass);
+        final var table = proxyClass.table;
+
+        final var callbacks = new Callback[table.size() + 1];
+        callbacks[DISPATCH_TO_TARGET] = (Dispatcher) () -> target;
+        for (int i = 0; i < table.size(); i++) {
+            callbacks[i + 1] = new AdviceChain(target, table.methodAt(i), proxyClass.boundAdvices[i]);
+        }
+
+        final var proxy = (Factory) objenesis.newInstance(proxyClass.type);
+        proxy.setCallbacks(callbacks);
+        return (T) proxy;
+    }
+
+    private ProxyClass generateProxyClass(final Class<?> targetClass) {
+        final var table = AdvisorDispatchTable.compile(targetClass, advisors, ChainedAdvice.class);
+
+        final var boundAdvices = new ChainedAdvice[table.size()][];
+        for (int i = 0; i < table.size(); i++) {
+            final var method = table.methodAt(i);
+            boundAdvices[i] = Arrays.stream(table.chainAt(i))
+                    .map(advice -> advice.bind(method))
+                    .filter(Objects::nonNull)
+                    .toArray(ChainedAdvice[]::new);
+        }
+
+        final var callbackTypes = new Class<?>[table.size() + 1];
+        callbackTypes[DISPATCH_TO_TARGET] = Dispatcher.class;
+        Arrays.fill(callbackTypes, 1, callbackTypes.length, MethodInterceptor.class);
+
+        final var enhancer = new Enhancer();
+        enhancer.setSuperclass(targetClass);
+        enhancer.setClassLoader(targetClass.getClassLoader());
+        enhancer.setUseCache(false);
+        enhancer.setCallbackTypes(callbackTypes);
+        enhancer.setCallbackFilter(method -> table.indexOf(method) + 1);
+        return new ProxyClass(enhancer.createClass(), table, boundAdvices);
+    }
+
+    private static class ProxyClass {
+
+        private final Class<?> type;
+        private final AdvisorDispatchTable<ChainedAdvice> table;
+        private final ChainedAdvice[][] boundAdvices;
+
+        ProxyClass(final Class<?> type, final AdvisorDispatchTable<ChainedAdvice> table, final ChainedAdvice[][] boundAdvices) {
+            this.type = type;
+            this.table = table;
+            this.boundAdvices = boundAdvices;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package aop.stage1;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.PointcutAdvisor;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 타겟 클래스의 public 메서드마다 어떤 어드바이스들이 적용되는지 미리 계산해둔 표.
+ * 어드바이스가 하나라도 적용되는 메서드는 0부터 시작하는 번호를 받고, 그 번호로 어드바이스 체인 배열을 찾는다.
+ * 포인트컷은 표를 만들 때 한 번만 평가하고, 메서드 호출 시에는 평가하지 않는다.
+ *
+ * @param <A> 체인을 구성하는 어드바이스 타입
+ */
+public class AdvisorDispatchTable<A extends Advice> {
+
+    private static final int NOT_ADVISED = -1;
+
+    private final Map<Method, Integer> indexes;
+    private final List<Method> methods;
+    private final List<A[]> chains;
+
+    private AdvisorDispatchTable(final Map<Method, Integer> indexes, final List<Method> methods, final List<A[]> chains) {
+        this.indexes = indexes;
+        this.methods = methods;
+        this.chains = chains;
+    }
+
+    public static <A extends Advice> AdvisorDispatchTable<A> compile(final Class<?> targetClass,
+                                                                    final List<? extends PointcutAdvisor> advisors,
+                                                                    final Class<A> adviceType) {
+        final var indexes = new HashMap<Method, Integer>();
+        final var methods = new ArrayList<Method>();
+        final var chains = new ArrayList<A[]>();
+        for (final Method method : targetClass.getMethods()) {
+            if (method.getDeclaringClass() == Object.class || Modifier.isFinal(method.getModifiers())
+                    || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            final var chain = matchingAdvices(method, targetClass, advisors, adviceType);
+            if (chain.length > 0) {
+                indexes.put(method, chains.size());
+                methods.add(method);
+                chains.add(chain);
+            }
+        }
+        return new AdvisorDispatchTable<>(Map.copyOf(indexes), List.copyOf(methods), List.copyOf(chains));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A extends Advice> A[] matchingAdvices(final Method method,
+                                                          final Class<?> targetClass,
+                                                          final List<? extends PointcutAdvisor> advisors,
+                                                          final Class<A> adviceType) {
+        final var advices = new ArrayList<A>();
+        for (final PointcutAdvisor advisor : advisors) {
+            final var pointcut = advisor.getPointcut();
+            if (pointcut.getClassFilter().matches(targetClass) && pointcut.getMethodMatcher().matches(method, targetClass)) {
+                if (!adviceType.isInstance(advisor.getAdvice())) {
+                    throw new IllegalArgumentException(adviceType.getSimpleName() + " 어드바이스만 지원한다 : " + advisor.getAdvice());
+                }
+                advices.add(adviceType.cast(advisor.getAdvice()));
+            }
+        }
+        return advices.toArray((A[]) Array.newInstance(adviceType, 0));
+    }
+
+    public int indexOf(final Method method) {
+        return indexes.getOrDefault(method, NOT_ADVISED);
+    }
+
+    public Method methodAt(final int index) {
+        return methods.get(index);
+    }
+
+    public A[] chainAt(final int index) {
+        return chains.get(index);
+    }
+
+    public int size() {
+        return chains.size();
+    }
+}
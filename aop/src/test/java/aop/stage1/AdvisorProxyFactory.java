@@ -0,0 +1,195 @@
+package aop.stage1;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Dispatcher;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.objenesis.Objenesis;
+import org.springframework.objenesis.SpringObjenesis;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 어드바이저 목록으로 프록시를 만드는 팩토리.
+ * 타겟 클래스마다 AdvisorDispatchTable을 한 번 만들고, 표의 번호를 그대로 CGLIB 콜백 번호로 사용한다.
+ * 그래서 호출 시점에는 포인트컷 매칭도, 메서드별 체인 조회도 없이 생성된 클래스가 콜백 배열의 해당 원소를 바로 호출한다.
+ */
+public class AdvisorProxyFactory {
+
+    private static final int DISPATCH_TO_TARGET = 0;
+
+    private final Objenesis objenesis = new SpringObjenesis();
+    private final Map<Class<?>, ProxyClass> proxyClasses = new ConcurrentHashMap<>();
+
+    private final List<? extends PointcutAdvisor> advisors;
+
+    public AdvisorProxyFactory(final List<? extends PointcutAdvisor> advisors) {
+        this.advisors = List.copyOf(advisors);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T createProxy(final T target) {
+        final var proxyClass = proxyClasses.computeIfAbsent(target.getClass(), this::generateProxyClass);
+        final var table = proxyClass.table;
+
+        final var callbacks = new Callback[table.size() + 1];
+        callbacks[DISPATCH_TO_TARGET] = (Dispatcher) () -> target;
+        for (int i = 0; i < table.size(); i++) {
+            callbacks[i + 1] = new ChainInterceptor(target, table.chainAt(i));
+        }
+
+        final var proxy = (Factory) objenesis.newInstance(proxyClass.type);
+        proxy.setCallbacks(callbacks);
+        return (T) proxy;
+    }
+
+    private ProxyClass generateProxyClass(final Class<?> targetClass) {
+        final var table = AdvisorDispatchTable.compile(targetClass, advisors, MethodInterceptor.class);
+
+        final var callbackTypes = new Class<?>[table.size() + 1];
+        callbackTypes[DISPATCH_TO_TARGET] = Dispatcher.class;
+        Arrays.fill(callbackTypes, 1, callbackTypes.length, org.springframework.cglib.proxy.MethodInterceptor.class);
+
+        final var enhancer = new Enhancer();
+        enhancer.setSuperclass(targetClass);
+        enhancer.setClassLoader(targetClass.getClassLoader());
+        enhancer.setUseCache(false);
+        enhancer.setCallbackTypes(callbackTypes);
+        enhancer.setCallbackFilter(method -> table.indexOf(method) + 1);
+        return new ProxyClass(enhancer.createClass(), table);
+    }
+
+    private static class ProxyClass {
+
+        private final Class<?> type;
+        private final AdvisorDispatchTable<MethodInterceptor> table;
+
+        ProxyClass(final Class<?> type, final AdvisorDispatchTable<MethodInterceptor> table) {
+            this.type = type;
+            this.table = table;
+        }
+    }
+
+    private static class ChainInterceptor implements org.springframework.cglib.proxy.MethodInterceptor {
+
+        private final Object target;
+        private final MethodInterceptor[] chain;
+
+        ChainInterceptor(final Object target, final MethodInterceptor[] chain) {
+            this.target = target;
+            this.chain = chain;
+        }
+
+        @Override
+        public Object intercept(final Object proxy, final Method method, final Object[] args, final MethodProxy methodProxy) throws Throwable {
+            return new ChainedInvocation(proxy, target, method, args, methodProxy, chain).proceed();
+        }
+    }
+
+    /**
+     * 재시도하는 어드바이스가 자기 뒤의 체인을 처음부터 다시 진행할 수 있도록 ProxyMethodInvocation으로 복제를 지원한다.
+     * 복제본은 복제한 시점의 체인 위치에서 시작한다.
+     */
+    private static class ChainedInvocation implements ProxyMethodInvocation {
+
+        private final Object proxy;
+        private final Object target;
+        private final Method method;
+        private Object[] arguments;
+        private final MethodProxy methodProxy;
+        private final MethodInterceptor[] chain;
+        private int index;
+        private Map<String, Object> userAttributes;
+
+        ChainedInvocation(final Object proxy, final Object target, final Method method, final Object[] arguments,
+                          final MethodProxy methodProxy, final MethodInterceptor[] chain) {
+            this.proxy = proxy;
+            this.target = target;
+            this.method = method;
+            this.arguments = arguments;
+            this.methodProxy = methodProxy;
+            this.chain = chain;
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            if (index < chain.length) {
+                return chain[index++].invoke(this);
+            }
+            return methodProxy.invoke(target, arguments);
+        }
+
+        @Override
+        public Object getProxy() {
+            return proxy;
+        }
+
+        @Override
+        public MethodInvocation invocableClone() {
+            return invocableClone(arguments.clone());
+        }
+
+        @Override
+        public MethodInvocation invocableClone(final Object... arguments) {
+            final var clone = new ChainedInvocation(proxy, target, method, arguments, methodProxy, chain);
+            clone.index = index;
+            if (userAttributes != null) {
+                clone.userAttributes = new HashMap<>(userAttributes);
+            }
+            return clone;
+        }
+
+        @Override
+        public void setArguments(final Object... arguments) {
+            this.arguments = arguments;
+        }
+
+        @Override
+        public void setUserAttribute(final String key, final Object value) {
+            if (userAttributes == null) {
+                userAttributes = new HashMap<>();
+            }
+            if (value == null) {
+                userAttributes.remove(key);
+                return;
+            }
+            userAttributes.put(key, value);
+        }
+
+        @Override
+        public Object getUserAttribute(final String key) {
+            return userAttributes == null ? null : userAttributes.get(key);
+        }
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return arguments;
+        }
+
+        @Override
+        public Object getThis() {
+            return target;
+        }
+
+        @Override
+        public AccessibleObject getStaticPart() {
+            return method;
+        }
+    }
+}
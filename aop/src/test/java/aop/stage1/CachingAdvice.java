@@ -0,0 +1,140 @@
+package aop.stage1;
+
+import aop.Transactional;
+import aop.domain.User;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 읽기 전용 메서드의 결과를 인자 값으로 캐싱하는 어드바이스.
+ * 인자가 하나인 @Transactional(readOnly = true) 메서드만 캐싱하고, 이 어드바이스가 적용된 쓰기 메서드가 성공하면 캐시를 모두 비운다.
+ * 쓰기가 트랜잭션 안에서 실행되었다면 트랜잭션이 끝날 때 한 번 더 비운다.
+ * 캐시를 비울 때마다 세대 번호를 올려서, 쓰기와 겹쳐 실행된 조회가 이전 값을 다시 넣지 않게 한다.
+ * 메서드마다 maximumSize 개까지 보관하고 가장 오래 사용하지 않은 값부터 제거한다(LRU).
+ * User는 CachingUserDao처럼 복사본을 보관하고 돌려주므로 호출한 쪽에서 수정해도 캐시에 영향이 없다. 다른 타입은 그대로 돌려주므로 불변 객체를 반환하는 메서드에만 적용한다.
+ * null 결과는 캐싱하지 않는다.
+ */
+public class CachingAdvice implements ChainedAdvice {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+
+    private final int maximumSize;
+    private final Map<Method, Map<Object, Object>> caches = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ChainedAdvice invalidation = new Invalidation(this);
+
+    public CachingAdvice() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public CachingAdvice(final int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public ChainedAdvice bind(final Method method) {
+        final var transactional = method.getAnnotation(Transactional.class);
+        if (transactional == null) {
+            return null;
+        }
+        if (transactional.readOnly() && method.getParameterCount() == 1) {
+            return new Lookup(this, caches.computeIfAbsent(method, ignored -> newCache()));
+        }
+        return invalidation;
+    }
+
+    @Override
+    public Object invoke(final AdviceChain chain, final int next, final Object[] args) throws Throwable {
+        final var bound = bind(chain.getMethod());
+        if (bound == null) {
+            return chain.proceed(next, args);
+        }
+        return bound.invoke(chain, next, args);
+    }
+
+    private Map<Object, Object> newCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Object> eldest) {
+                return size() > maximumSize;
+            }
+        });
+    }
+
+    private static Object copyOf(final Object value) {
+        if (value instanceof User) {
+            final var user = (User) value;
+            return new User(user.getId(), user.getAccount(), user.getPassword(), user.getEmail(), user.getVersion());
+        }
+        return value;
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        caches.values().forEach(Map::clear);
+    }
+
+    private static class Lookup implements ChainedAdvice {
+
+        private final CachingAdvice cachingAdvice;
+        private final Map<Object, Object> cache;
+
+        Lookup(final CachingAdvice cachingAdvice, final Map<Object, Object> cache) {
+            this.cachingAdvice = cachingAdvice;
+            this.cache = cache;
+        }
+
+        @Override
+        public Object invoke(final AdviceChain chain, final int next, final Object[] args) throws Throwable {
+            final var key = args[0];
+            if (key == null) {
+                return chain.proceed(next, args);
+            }
+            final var cached = cache.get(key);
+            if (cached != null) {
+                return copyOf(cached);
+            }
+            final var generation = cachingAdvice.generation.get();
+            final var result = chain.proceed(next, args);
+            if (result != null && cachingAdvice.generation.get() == generation) {
+                cache.put(key, copyOf(result));
+            }
+            return result;
+        }
+    }
+
+    private static class Invalidation implements ChainedAdvice {
+
+        private final CachingAdvice cachingAdvice;
+
+        Invalidation(final CachingAdvice cachingAdvice) {
+            this.cachingAdvice = cachingAdvice;
+        }
+
+        /**
+         * 바깥 트랜잭션에 참여한 쓰기는 아직 커밋되지 않았으므로, 그 사이 다른 스레드가 이전 값을 캐시에 넣을 수 있다.
+         * 트랜잭션이 끝날 때 한 번 더 비워서 그 값을 지운다.
+         */
+        @Override
+        public Object invoke(final AdviceChain chain, final int next, final Object[] args) throws Throwable {
+            final var result = chain.proceed(next, args);
+            cachingAdvice.clear();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(final int status) {
+                        cachingAdvice.clear();
+                    }
+                });
+            }
+            return result;
+        }
+    }
+}
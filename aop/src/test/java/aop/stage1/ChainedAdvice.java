@@ -0,0 +1,24 @@
+package aop.stage1;
+
+import org.aopalliance.aop.Advice;
+
+import java.lang.reflect.Method;
+
+/**
+ * AdviceChain 위에서 동작하는 어드바이스.
+ * MethodInvocation 객체 대신 체인과 다음 어드바이스의 번호를 넘겨받으므로, 호출마다 새 객체를 만들지 않는다.
+ * 다음 단계로 진행하려면 chain.proceed(next, args)를 호출한다. 여러 번 호출하면 남은 체인을 처음부터 다시 실행한다.
+ */
+public interface ChainedAdvice extends Advice {
+
+    /**
+     * 프록시 클래스를 만들 때 메서드마다 한 번 호출된다.
+     * 어노테이션 해석처럼 메서드별로 정해지는 일은 여기서 끝내고 그 결과를 담은 어드바이스를 돌려준다.
+     * null을 돌려주면 해당 메서드의 체인에서 빠진다.
+     */
+    default ChainedAdvice bind(final Method method) {
+        return this;
+    }
+
+    Object invoke(AdviceChain chain, int next, Object[] args) throws Throwable;
+}
@@ -0,0 +1,42 @@
+package aop.stage1;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.core.Ordered;
+
+/**
+ * ChainedAdvice용 어드바이저. order가 작을수록 체인의 바깥쪽에서 먼저 실행된다.
+ */
+public class ChainedAdvisor implements PointcutAdvisor, Ordered {
+
+    private final Pointcut pointcut;
+    private final ChainedAdvice advice;
+    private final int order;
+
+    public ChainedAdvisor(final Pointcut pointcut, final ChainedAdvice advice, final int order) {
+        this.pointcut = pointcut;
+        this.advice = advice;
+        this.order = order;
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return advice;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public boolean isPerInstance() {
+        return false;
+    }
+}
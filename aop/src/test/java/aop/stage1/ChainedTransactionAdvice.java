@@ -0,0 +1,58 @@
+package aop.stage1;
+
+import aop.TransactionAttribute;
+import aop.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Method;
+
+/**
+ * TransactionAdvice의 ChainedAdvice 버전. @Transactional 속성은 bind 시점에 한 번만 해석한다.
+ * 충돌 재시도는 RetryAdvice가 맡으므로 여기서는 트랜잭션 시작, 커밋, 롤백만 한다.
+ */
+public class ChainedTransactionAdvice implements ChainedAdvice {
+
+    private final PlatformTransactionManager transactionManager;
+
+    public ChainedTransactionAdvice(final PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public ChainedAdvice bind(final Method method) {
+        final var transactional = method.getAnnotation(Transactional.class);
+        if (transactional == null) {
+            return null;
+        }
+        return new Bound(transactionManager, TransactionAttribute.from(transactional));
+    }
+
+    @Override
+    public Object invoke(final AdviceChain chain, final int next, final Object[] args) throws Throwable {
+        final var bound = bind(chain.getMethod());
+        if (bound == null) {
+            return chain.proceed(next, args);
+        }
+        return bound.invoke(chain, next, args);
+    }
+
+    private static class Bound implements ChainedAdvice {
+
+        private final PlatformTransactionManager transactionManager;
+        private final TransactionAttribute transactionAttribute;
+
+        Bound(final PlatformTransactionManager transactionManager, final TransactionAttribute transactionAttribute) {
+            this.transactionManager = transactionManager;
+            this.transactionAttribute = transactionAttribute;
+        }
+
+        @Override
+        public Object invoke(final AdviceChain chain, final int next, final Object[] args) throws Throwable {
+            if (transactionAttribute.canSkipTransactionManager()) {
+                return chain.proceed(next, args);
+            }
+
+            return TransactionRunner.run(transactionManager, transactionAttribute, () -> chain.proceed(next, args));
+        }
+    }
+}
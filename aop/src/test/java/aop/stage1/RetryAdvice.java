@@ -0,0 +1,62 @@
+package aop.stage1;
+
+import aop.DataAccessException;
+import aop.TransactionAttribute;
+import aop.Transactional;
+
+import java.lang.reflect.Method;
+
+/**
+ * @Transactional(retryOnConflict)가 지정된 메서드를 동시 수정 충돌 시 다시 실행하는 어드바이스.
+ * 실패한 트랜잭션이 롤백된 뒤 새 트랜잭션에서 재시도해야 하므로 ChainedTransactionAdvice보다 바깥쪽(작은 order)에 둔다.
+ * 체인의 진행 위치가 인자로 넘어오므로 chain.proceed(next, args)를 다시 호출하면 남은 체인이 처음부터 실행된다.
+ */
+public class RetryAdvice implements ChainedAdvice {
+
+    @Override
+    public ChainedAdvice bind(final Method method) {
+        final var transactional = method.getAnnotation(Transactional.class);
+        if (transactional == null || transactional.retryOnConflict() <= 0) {
+            return null;
+        }
+        return new Bound(TransactionAttribute.from(transactional));
+    }
+
+    @Override
+    public Object invoke(final AdviceChain chain, final int next, final Object[] args) throws Throwable {
+        final var bound = bind(chain.getMethod());
+        if (bound == null) {
+            return chain.proceed(next, args);
+        }
+        return bound.invoke(chain, next, args);
+    }
+
+    private static class Bound implements ChainedAdvice {
+
+        private final TransactionAttribute transactionAttribute;
+
+        Bound(final TransactionAttribute transactionAttribute) {
+            this.transactionAttribute = transactionAttribute;
+        }
+
+        @Override
+        public Object invoke(final AdviceChain chain, final int next, final Object[] args) throws Throwable {
+            // 바깥 트랜잭션에 참여하면 충돌 시 바깥 트랜잭션이 이미 rollback-only이므로 다시 실행하지 않는다.
+            if (transactionAttribute.canSkipTransactionManager()) {
+                return chain.proceed(next, args);
+            }
+            var attempt = 0;
+            while (true) {
+                try {
+                    return chain.proceed(next, args);
+                } catch (DataAccessException e) {
+                    if (!transactionAttribute.canRetry(e, attempt)) {
+                        throw e;
+                    }
+                    Thread.sleep(transactionAttribute.retryDelayMillis(attempt));
+                    attempt++;
+                }
+            }
+        }
+    }
+}
@@ -2,18 +2,35 @@ package aop.stage1;
 
 import aop.DataAccessException;
 import aop.StubUserHistoryDao;
+import aop.TransactionContext;
 import aop.domain.User;
+import aop.metrics.TransactionMetrics;
+import aop.metrics.TransactionMetrics.Phase;
 import aop.repository.UserDao;
 import aop.repository.UserHistoryDao;
+import org.aopalliance.intercept.MethodInterceptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactoryBean;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -33,6 +50,9 @@ class Stage1Test {
     @Autowired
     private PlatformTransactionManager platformTransactionManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         final var user = new User("gugu", "password", "hkkang@woowahan.com");
@@ -41,7 +61,7 @@ class Stage1Test {
 
     @Test
     void testChangePassword() {
-        final UserService userService = null;
+        final var userService = createProxy(new UserService(userDao, userHistoryDao));
 
         final var newPassword = "qqqqq";
         final var createBy = "gugu";
@@ -54,7 +74,7 @@ class Stage1Test {
 
     @Test
     void testTransactionRollback() {
-        final UserService userService = null;
+        final var userService = createProxy(new UserService(userDao, stubUserHistoryDao));
 
         final var newPassword = "newPassword";
         final var createBy = "gugu";
@@ -65,4 +85,302 @@ class Stage1Test {
 
         assertThat(actual.getPassword()).isNotEqualTo(newPassword);
     }
+
+    @Test
+    void testRollbackOnCheckedExceptionWithEachProxyFactory() {
+        final var springProxy = createProxy(new UserService(failAfterUpdate(), userHistoryDao));
+        assertRolledBackOnCheckedException(springProxy, "springProxyChecked");
+
+        final var generatedProxy = new TransactionProxyFactory(new TransactionPointcut(), platformTransactionManager)
+                .createProxy(new UserService(failAfterUpdate(), userHistoryDao));
+        assertRolledBackOnCheckedException(generatedProxy, "generatedChecked");
+
+        final var adviceChainProxy = createAdviceChainProxy(new UserService(failAfterUpdate(), userHistoryDao), new TimingAdvice(), new CachingAdvice());
+        assertRolledBackOnCheckedException(adviceChainProxy, "adviceChainChecked");
+    }
+
+    @Test
+    void testChangePasswordWithGeneratedProxy() {
+        final var proxyFactory = new TransactionProxyFactory(new TransactionPointcut(), platformTransactionManager);
+        final var userService = proxyFactory.createProxy(new UserService(userDao, userHistoryDao));
+
+        final var newPassword = "generated";
+        final var createBy = "gugu";
+        userService.changePassword(1L, newPassword, createBy);
+
+        final var actual = userService.findById(1L);
+
+        assertThat(actual.getPassword()).isEqualTo(newPassword);
+    }
+
+    @Test
+    void testTransactionRollbackWithGeneratedProxy() {
+        final var proxyFactory = new TransactionProxyFactory(new TransactionPointcut(), platformTransactionManager);
+        final var userService = proxyFactory.createProxy(new UserService(userDao, stubUserHistoryDao));
+
+        final var newPassword = "generatedRollback";
+        final var createBy = "gugu";
+        assertThrows(DataAccessException.class,
+                () -> userService.changePassword(1L, newPassword, createBy));
+
+        final var actual = userService.findById(1L);
+
+        assertThat(actual.getPassword()).isNotEqualTo(newPassword);
+    }
+
+    @Test
+    void testTransactionRollbackWithDispatchTableProxy() {
+        final var proxyFactory = new AdvisorProxyFactory(List.of(new TransactionAdvisor(
+                new TransactionPointcut(),
+                new TransactionAdvice(platformTransactionManager))));
+        final var userService = proxyFactory.createProxy(new UserService(userDao, stubUserHistoryDao));
+
+        final var newPassword = "dispatchTableRollback";
+        final var createBy = "gugu";
+        assertThrows(DataAccessException.class,
+                () -> userService.changePassword(1L, newPassword, createBy));
+
+        final var actual = userService.findById(1L);
+
+        assertThat(actual.getPassword()).isNotEqualTo(newPassword);
+    }
+
+    @Test
+    void testReadOnlyFindByIdJoinsEnclosingTransaction() {
+        final var userService = createProxy(new UserService(userDao, userHistoryDao));
+        final var transactionTemplate = new TransactionTemplate(platformTransactionManager);
+
+        final var uncommittedPassword = "uncommitted";
+        transactionTemplate.executeWithoutResult(status -> {
+            final var user = userDao.findById(1L);
+            user.changePassword(uncommittedPassword);
+            userDao.update(user);
+
+            assertThat(userService.findById(1L).getPassword()).isEqualTo(uncommittedPassword);
+            status.setRollbackOnly();
+        });
+
+        final var actual = userService.findById(1L);
+
+        assertThat(actual.getPassword()).isNotEqualTo(uncommittedPassword);
+    }
+
+    @Test
+    void testReadOnlyFindByIdRunsInReadOnlyTransaction() {
+        final var readOnly = new AtomicBoolean();
+        final var userService = createProxy(new UserService(new UserDao(jdbcTemplate) {
+            @Override
+            public User findById(final Long id) {
+                readOnly.set(TransactionSynchronizationManager.isActualTransactionActive()
+                        && TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+                return super.findById(id);
+            }
+        }, userHistoryDao));
+
+        userService.findById(1L);
+
+        assertThat(readOnly).isTrue();
+    }
+
+    @Test
+    void testTransactionMetrics() {
+        final var metrics = new TransactionMetrics();
+        final var userService = createProxy(new UserService(userDao, stubUserHistoryDao),
+                new TransactionAdvice(platformTransactionManager, metrics));
+
+        assertThrows(DataAccessException.class,
+                () -> userService.changePassword(1L, "metrics", "gugu"));
+
+        final var changePassword = metrics.snapshot().get("UserService.changePassword(long, String, String)");
+        assertThat(changePassword.get(Phase.BEGIN).getCount()).isEqualTo(1);
+        assertThat(changePassword.get(Phase.BODY).getCount()).isEqualTo(1);
+        assertThat(changePassword.get(Phase.ROLLBACK).getCount()).isEqualTo(1);
+        assertThat(changePassword.get(Phase.COMMIT).getCount()).isZero();
+    }
+
+    @Test
+    void testTransactionMetricsSeparateOverloads() throws NoSuchMethodException {
+        final var metrics = new TransactionMetrics();
+        metrics.forMethod(UserDao.class.getMethod("update", User.class)).record(Phase.BODY, 1_000);
+        metrics.forMethod(UserDao.class.getMethod("update", TransactionContext.class, User.class)).record(Phase.BODY, 1_000);
+
+        assertThat(metrics.snapshot()).containsOnlyKeys(
+                "UserDao.update(User)",
+                "UserDao.update(TransactionContext, User)");
+    }
+
+    @Test
+    void testTransactionRollbackWithAdviceChain() {
+        final var timingAdvice = new TimingAdvice();
+        final var userService = createAdviceChainProxy(new UserService(userDao, stubUserHistoryDao), timingAdvice, new CachingAdvice());
+
+        final var newPassword = "adviceChainRollback";
+        final var createBy = "gugu";
+        assertThrows(DataAccessException.class,
+                () -> userService.changePassword(1L, newPassword, createBy));
+
+        final var actual = userService.findById(1L);
+
+        assertThat(actual.getPassword()).isNotEqualTo(newPassword);
+        assertThat(timingAdvice.snapshot().get("UserService.changePassword(long, String, String)").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testCachingAdviceInvalidatedByWrite() {
+        final var userService = createAdviceChainProxy(new UserService(userDao, userHistoryDao), new TimingAdvice(), new CachingAdvice());
+
+        final var cached = userService.findById(1L);
+        cached.changePassword("modifiedByCaller");
+        assertThat(userService.findById(1L)).isNotSameAs(cached);
+        assertThat(userService.findById(1L).getPassword()).isNotEqualTo("modifiedByCaller");
+
+        final var newPassword = "adviceChain";
+        userService.changePassword(1L, newPassword, "gugu");
+
+        assertThat(userService.findById(1L).getPassword()).isEqualTo(newPassword);
+    }
+
+    @Test
+    void testCachingAdviceInvalidatedAfterEnclosingCommit() {
+        final var userService = createAdviceChainProxy(new UserService(userDao, userHistoryDao), new TimingAdvice(), new CachingAdvice());
+        final var newPassword = "enclosingCommit";
+
+        new TransactionTemplate(platformTransactionManager).executeWithoutResult(status -> {
+            userService.changePassword(1L, newPassword, "gugu");
+
+            final var readBeforeCommit = CompletableFuture.supplyAsync(() -> userService.findById(1L)).join();
+            assertThat(readBeforeCommit.getPassword()).isNotEqualTo(newPassword);
+        });
+
+        assertThat(userService.findById(1L).getPassword()).isEqualTo(newPassword);
+    }
+
+    @Test
+    void testRetryOnConflictWithEachProxyFactory() {
+        final var pointcut = new TransactionPointcut();
+
+        final var springProxyUpdates = new AtomicInteger();
+        final var springProxyProceeded = new AtomicInteger();
+        final var proxyFactoryBean = new ProxyFactoryBean();
+        proxyFactoryBean.setTarget(new UserService(conflictOnFirstUpdate(springProxyUpdates), userHistoryDao));
+        proxyFactoryBean.setProxyTargetClass(true);
+        proxyFactoryBean.addAdvisor(new TransactionAdvisor(pointcut, new TransactionAdvice(platformTransactionManager)));
+        proxyFactoryBean.addAdvisor(new DefaultPointcutAdvisor(pointcut, countChangePassword(springProxyProceeded)));
+        assertRetried((UserService) proxyFactoryBean.getObject(), springProxyUpdates, "springProxy");
+        assertThat(springProxyProceeded).hasValue(2);
+
+        final var dispatchTableUpdates = new AtomicInteger();
+        final var dispatchTableProceeded = new AtomicInteger();
+        final var advisorProxyFactory = new AdvisorProxyFactory(List.of(
+                new TransactionAdvisor(pointcut, new TransactionAdvice(platformTransactionManager)),
+                new DefaultPointcutAdvisor(pointcut, countChangePassword(dispatchTableProceeded))));
+        assertRetried(advisorProxyFactory.createProxy(new UserService(conflictOnFirstUpdate(dispatchTableUpdates), userHistoryDao)),
+                dispatchTableUpdates, "dispatchTable");
+        assertThat(dispatchTableProceeded).hasValue(2);
+
+        final var generatedUpdates = new AtomicInteger();
+        final var transactionProxyFactory = new TransactionProxyFactory(pointcut, platformTransactionManager);
+        assertRetried(transactionProxyFactory.createProxy(new UserService(conflictOnFirstUpdate(generatedUpdates), userHistoryDao)),
+                generatedUpdates, "generated");
+
+        final var adviceChainUpdates = new AtomicInteger();
+        assertRetried(createAdviceChainProxy(new UserService(conflictOnFirstUpdate(adviceChainUpdates), userHistoryDao), new TimingAdvice(), new CachingAdvice()),
+                adviceChainUpdates, "adviceChain");
+    }
+
+    @Test
+    void testRetryAdviceDoesNotRetryInsideEnclosingTransaction() {
+        final var updates = new AtomicInteger();
+        final var userService = createAdviceChainProxy(new UserService(conflictOnFirstUpdate(updates), userHistoryDao), new TimingAdvice(), new CachingAdvice());
+
+        assertThrows(DataAccessException.class, () -> new TransactionTemplate(platformTransactionManager)
+                .executeWithoutResult(status -> userService.changePassword(1L, "joined", "gugu")));
+
+        assertThat(updates).hasValue(1);
+        assertThat(userDao.findById(1L).getPassword()).isNotEqualTo("joined");
+    }
+
+    private void assertRetried(final UserService userService, final AtomicInteger updates, final String newPassword) {
+        userService.changePassword(1L, newPassword, "gugu");
+
+        assertThat(updates).hasValue(2);
+        assertThat(userDao.findById(1L).getPassword()).isEqualTo(newPassword);
+    }
+
+    /**
+     * 첫 번째 update 직전에 다른 트랜잭션이 같은 사용자의 version을 올려서 동시 수정 충돌을 만든다.
+     */
+    private UserDao conflictOnFirstUpdate(final AtomicInteger updates) {
+        final var requiresNew = new TransactionTemplate(platformTransactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new UserDao(jdbcTemplate) {
+            @Override
+            public void update(final User user) {
+                if (updates.getAndIncrement() == 0) {
+                    requiresNew.executeWithoutResult(status ->
+                            jdbcTemplate.update("update users set version = version + 1 where id = ?", user.getId()));
+                }
+                super.update(user);
+            }
+        };
+    }
+
+    private void assertRolledBackOnCheckedException(final UserService userService, final String newPassword) {
+        final var thrown = catchThrowable(() -> userService.changePassword(1L, newPassword, "gugu"));
+
+        assertThat(thrown instanceof IOException || thrown.getCause() instanceof IOException).isTrue();
+        assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+        assertThat(userDao.findById(1L).getPassword()).isNotEqualTo(newPassword);
+    }
+
+    /**
+     * update가 끝난 뒤 선언하지 않은 체크 예외를 던지는 UserDao.
+     */
+    private UserDao failAfterUpdate() {
+        return new UserDao(jdbcTemplate) {
+            @Override
+            public void update(final User user) {
+                super.update(user);
+                Stage1Test.<RuntimeException>sneakyThrow(new IOException("checked"));
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> void sneakyThrow(final Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+    private static MethodInterceptor countChangePassword(final AtomicInteger proceeded) {
+        return invocation -> {
+            if (invocation.getMethod().getName().equals("changePassword")) {
+                proceeded.incrementAndGet();
+            }
+            return invocation.proceed();
+        };
+    }
+
+    private UserService createAdviceChainProxy(final UserService target,
+                                               final TimingAdvice timingAdvice,
+                                               final CachingAdvice cachingAdvice) {
+        final var pointcut = new TransactionPointcut();
+        final var proxyFactory = new AdviceChainProxyFactory(List.of(
+                new ChainedAdvisor(pointcut, new ChainedTransactionAdvice(platformTransactionManager), 3),
+                new ChainedAdvisor(pointcut, cachingAdvice, 2),
+                new ChainedAdvisor(pointcut, new RetryAdvice(), 1),
+                new ChainedAdvisor(pointcut, timingAdvice, 0)));
+        return proxyFactory.createProxy(target);
+    }
+
+    private UserService createProxy(final UserService target) {
+        return createProxy(target, new TransactionAdvice(platformTransactionManager));
+    }
+
+    private UserService createProxy(final UserService target, final TransactionAdvice transactionAdvice) {
+        final var proxyFactoryBean = new ProxyFactoryBean();
+        proxyFactoryBean.setTarget(target);
+        proxyFactoryBean.setProxyTargetClass(true);
+        proxyFactoryBean.addAdvisor(new TransactionAdvisor(new TransactionPointcut(), transactionAdvice));
+        return (UserService) proxyFactoryBean.getObject();
+    }
 }
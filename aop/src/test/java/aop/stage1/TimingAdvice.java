@@ -0,0 +1,61 @@
+package aop.stage1;
+
+import aop.metrics.LatencyHistogram;
+import aop.metrics.LatencySnapshot;
+import aop.metrics.TransactionMetrics;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메서드 실행 시간을 메서드별 히스토그램에 기록하는 어드바이스.
+ * 히스토그램은 bind 시점에 찾아두므로 호출마다 맵을 조회하지 않는다.
+ */
+public class TimingAdvice implements ChainedAdvice {
+
+    private final Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public ChainedAdvice bind(final Method method) {
+        return new Bound(histogramOf(method));
+    }
+
+    @Override
+    public Object invoke(final AdviceChain chain, final int next, final Object[] args) throws Throwable {
+        return bind(chain.getMethod()).invoke(chain, next, args);
+    }
+
+    /**
+     * 메서드 이름("클래스.메서드(파라미터 타입)")별 스냅샷. 키는 TransactionMetrics와 같은 형식이다. 예외로 끝난 호출도 함께 기록된다.
+     */
+    public Map<String, LatencySnapshot> snapshot() {
+        final var snapshot = new TreeMap<String, LatencySnapshot>();
+        histograms.forEach((method, histogram) -> snapshot.put(TransactionMetrics.nameOf(method), histogram.snapshot()));
+        return snapshot;
+    }
+
+    private LatencyHistogram histogramOf(final Method method) {
+        return histograms.computeIfAbsent(method, ignored -> new LatencyHistogram());
+    }
+
+    private static class Bound implements ChainedAdvice {
+
+        private final LatencyHistogram histogram;
+
+        Bound(final LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public Object invoke(final AdviceChain chain, final int next, final Object[] args) throws Throwable {
+            final var startedAt = System.nanoTime();
+            try {
+                return chain.proceed(next, args);
+            } finally {
+                histogram.record(System.nanoTime() - startedAt);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package aop.stage1;
+
+import aop.DataAccessException;
+import aop.TransactionAttribute;
+import aop.Transactional;
+import org.springframework.aop.Pointcut;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Dispatcher;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.objenesis.Objenesis;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TransactionAdvisor 대신 사용할 수 있는 프록시 팩토리.
+ * 타겟 클래스를 상속한 프록시 클래스를 타겟 클래스마다 한 번만 생성한다.
+ * 포인트컷은 클래스 생성 시점에만 평가되고, 트랜잭션이 필요 없는 메서드는 Dispatcher를 통해 타겟을 직접 호출한다.
+ * 트랜잭션 메서드는 MethodProxy(FastClass)로 타겟을 호출하므로 Method.invoke를 거치지 않는다.
+ * @Transactional 속성도 클래스 생성 시점에 해석해서 메서드별로 보관한다.
+ */
+public class TransactionProxyFactory {
+
+    private static final int DISPATCH_TO_TARGET = 0;
+    private static final int TRANSACTIONAL = 1;
+
+    private final Objenesis objenesis = new SpringObjenesis();
+    private final Map<Class<?>, Class<?>> proxyClasses = new ConcurrentHashMap<>();
+    private final Map<Method, TransactionAttribute> transactionAttributes = new ConcurrentHashMap<>();
+
+    private final Pointcut pointcut;
+    private final PlatformTransactionManager transactionManager;
+
+    public TransactionProxyFactory(final Pointcut pointcut, final PlatformTransactionManager transactionManager) {
+        this.pointcut = pointcut;
+        this.transactionManager = transactionManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T createProxy(final T target) {
+        final var proxyClass = proxyClasses.computeIfAbsent(target.getClass(), this::generateProxyClass);
+        final var proxy = (Factory) objenesis.newInstance(proxyClass);
+        proxy.setCallbacks(new Callback[]{
+                (Dispatcher) () -> target,
+                new TransactionInterceptor(transactionManager, transactionAttributes, target)
+        });
+        return (T) proxy;
+    }
+
+    private Class<?> generateProxyClass(final Class<?> targetClass) {
+        final var methodMatcher = pointcut.getMethodMatcher();
+        final CallbackFilter callbackFilter = method -> {
+            if (!methodMatcher.matches(method, targetClass)) {
+                return DISPATCH_TO_TARGET;
+            }
+            transactionAttributes.put(method, TransactionAttribute.from(method.getAnnotation(Transactional.class)));
+            return TRANSACTIONAL;
+        };
+
+        final var enhancer = new Enhancer();
+        enhancer.setSuperclass(targetClass);
+        enhancer.setClassLoader(targetClass.getClassLoader());
+        enhancer.setUseCache(false);
+        enhancer.setCallbackTypes(new Class[]{Dispatcher.class, MethodInterceptor.class});
+        enhancer.setCallbackFilter(callbackFilter);
+        return enhancer.createClass();
+    }
+
+    private static class TransactionInterceptor implements MethodInterceptor {
+
+        private final PlatformTransactionManager transactionManager;
+        private final Map<Method, TransactionAttribute> transactionAttributes;
+        private final Object target;
+
+        TransactionInterceptor(final PlatformTransactionManager transactionManager,
+                               final Map<Method, TransactionAttribute> transactionAttributes,
+                               final Object target) {
+            this.transactionManager = transactionManager;
+            this.transactionAttributes = transactionAttributes;
+            this.target = target;
+        }
+
+        @Override
+        public Object intercept(final Object proxy, final Method method, final Object[] args, final MethodProxy methodProxy) throws Throwable {
+            final var transactionAttribute = transactionAttributes.get(method);
+            if (transactionAttribute.canSkipTransactionManager()) {
+                return methodProxy.invoke(target, args);
+            }
+            if (!transactionAttribute.isRetryable()) {
+                return invokeInTransaction(transactionAttribute, args, methodProxy);
+            }
+
+            var attempt = 0;
+            while (true) {
+                try {
+                    return invokeInTransaction(transactionAttribute, args, methodProxy);
+                } catch (DataAccessException e) {
+                    if (!transactionAttribute.canRetry(e, attempt)) {
+                        throw e;
+                    }
+                    Thread.sleep(transactionAttribute.retryDelayMillis(attempt));
+                    attempt++;
+                }
+            }
+        }
+
+        private Object invokeInTransaction(final TransactionAttribute transactionAttribute,
+                                           final Object[] args,
+                                           final MethodProxy methodProxy) throws Throwable {
+            return TransactionRunner.run(transactionManager, transactionAttribute, () -> methodProxy.invoke(target, args));
+        }
+    }
+}
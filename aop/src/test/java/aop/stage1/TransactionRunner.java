@@ -0,0 +1,40 @@
+package aop.stage1;
+
+import aop.DataAccessException;
+import aop.TransactionAttribute;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * stage1의 프록시들이 함께 쓰는 트랜잭션 시작, 커밋, 롤백.
+ * 본문이 Error나 체크 예외로 끝나도 롤백하고, RuntimeException은 DataAccessException으로 감싸서 다시 던진다.
+ */
+final class TransactionRunner {
+
+    private TransactionRunner() {
+    }
+
+    static Object run(final PlatformTransactionManager transactionManager,
+                      final TransactionAttribute transactionAttribute,
+                      final Body body) throws Throwable {
+        final var transactionStatus = transactionManager.getTransaction(transactionAttribute.getDefinition());
+        final Object result;
+        try {
+            result = body.proceed();
+        } catch (Throwable e) {
+            transactionManager.rollback(transactionStatus);
+            throw wrap(e);
+        }
+        transactionManager.commit(transactionStatus);
+        return result;
+    }
+
+    static Throwable wrap(final Throwable e) {
+        return e instanceof RuntimeException ? new DataAccessException(e) : e;
+    }
+
+    @FunctionalInterface
+    interface Body {
+
+        Object proceed() throws Throwable;
+    }
+}
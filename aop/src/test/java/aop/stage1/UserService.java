@@ -16,7 +16,7 @@ public class UserService {
         this.userHistoryDao = userHistoryDao;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public User findById(final long id) {
         return userDao.findById(id);
     }
@@ -26,7 +26,7 @@ public class UserService {
         userDao.insert(user);
     }
 
-    @Transactional
+    @Transactional(retryOnConflict = 3)
     public void changePassword(final long id, final String newPassword, final String createBy) {
         final var user = findById(id);
         user.changePassword(newPassword);
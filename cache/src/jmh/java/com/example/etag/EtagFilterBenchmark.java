@@ -0,0 +1,134 @@
+package com.example.etag;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.DelegatingServletOutputStream;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.Filter;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 정적 파일 요청에 ShallowEtagHeaderFilter와 StaticResourceEtagFilter를 적용했을 때의 처리량과 요청당 할당량을 비교한다.
+ * 리소스 핸들러 대신 파일 내용을 메모리에서 바로 쓰는 서블릿을 두고, 응답 본문은 버린다.
+ * 따라서 gc.alloc.rate.norm의 차이는 필터가 응답 본문을 복사하는 비용이다.
+ * notModified 벤치마크는 If-None-Match가 일치하는 재요청이다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EtagFilterBenchmark {
+
+    private static final String URI = "/resources/1/js/bundle.js";
+
+    @Param({"16", "1024", "4096"})
+    private int sizeKb;
+
+    private Path directory;
+    private byte[] content;
+    private HttpServlet servlet;
+    private Filter shallowEtagFilter;
+    private Filter staticResourceEtagFilter;
+    private String etag;
+    private String shallowEtag;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("etag-benchmark");
+        content = new byte[sizeKb * 1024];
+        Arrays.fill(content, (byte) 'a');
+        Files.createDirectories(directory.resolve("js"));
+        Files.write(directory.resolve("js/bundle.js"), content);
+
+        servlet = new HttpServlet() {
+            @Override
+            protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+                response.setContentType("application/javascript");
+                response.setContentLength(content.length);
+                response.getOutputStream().write(content);
+            }
+        };
+        shallowEtagFilter = new ShallowEtagHeaderFilter();
+        final StaticResourceEtags etags = new StaticResourceEtags(
+                new PathMatchingResourcePatternResolver(), directory.toUri().toString());
+        etags.precompute();
+        staticResourceEtagFilter = new StaticResourceEtagFilter(etags);
+        etag = etags.findEtag("/js/bundle.js");
+        shallowEtag = "\"0" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int shallowFull() throws Exception {
+        return execute(shallowEtagFilter, null);
+    }
+
+    @Benchmark
+    public int shallowNotModified() throws Exception {
+        return execute(shallowEtagFilter, shallowEtag);
+    }
+
+    @Benchmark
+    public int precomputedFull() throws Exception {
+        return execute(staticResourceEtagFilter, null);
+    }
+
+    @Benchmark
+    public int precomputedNotModified() throws Exception {
+        return execute(staticResourceEtagFilter, etag);
+    }
+
+    private int execute(final Filter filter, final String ifNoneMatch) throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", URI);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        final MockHttpServletResponse response = new DiscardingResponse();
+        new MockFilterChain(servlet, filter).doFilter(request, response);
+        return response.getStatus();
+    }
+
+    private static class DiscardingResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream outputStream = new DelegatingServletOutputStream(OutputStream.nullOutputStream());
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.sendfile;
+
+import com.example.version.ResourceVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.mock.web.DelegatingServletOutputStream;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import javax.servlet.ServletOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 수 MB 정적 파일을 기존 ResourceHttpRequestHandler와 SendfileResourceHandler로 보낼 때의 처리량을 비교한다.
+ *
+ * 응답은 로컬 TCP 소켓으로 보내고, 받는 쪽 스레드는 읽은 바이트를 버린다.
+ * resourceHandler는 스트림 복사, transferTo는 Tomcat의 sendfile 지원이 없을 때의 경로다.
+ * sendfile은 핸들러가 남긴 요청 속성대로 FileChannel.transferTo로 소켓에 직접 보내서 Tomcat NIO 커넥터의 sendfile을 흉내 낸다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SendfileResourceBenchmark {
+
+    private static final String PATH = "/media/video.bin";
+
+    @Param({"4", "16", "64"})
+    private int sizeMb;
+
+    private Path directory;
+    private ResourceVersion version;
+    private ResourceHttpRequestHandler resourceHandler;
+    private SendfileResourceHandler sendfileHandler;
+    private String fingerprintedPath;
+
+    private ServerSocketChannel server;
+    private SocketChannel client;
+    private Thread drainer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("sendfile-benchmark");
+        Files.createDirectories(directory.resolve("media"));
+        final byte[] chunk = new byte[1024 * 1024];
+        new Random(42).nextBytes(chunk);
+        for (int i = 0; i < sizeMb; i++) {
+            Files.write(directory.resolve(PATH.substring(1)), chunk, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        final String location = directory.toUri().toString();
+        version = new ResourceVersion(new PathMatchingResourcePatternResolver(), location);
+        version.init();
+        fingerprintedPath = version.getFingerprint(PATH) + PATH;
+
+        resourceHandler = new ResourceHttpRequestHandler();
+        resourceHandler.setServletContext(new MockServletContext());
+        resourceHandler.setLocations(List.of(new FileSystemResource(directory.toString() + "/")));
+        resourceHandler.setResourceResolvers(List.of(new PathResourceResolver()));
+        resourceHandler.afterPropertiesSet();
+
+        final LocalResourceCache localResources = new LocalResourceCache(
+                new PathMatchingResourcePatternResolver(), location, directory.resolve("extracted"));
+        sendfileHandler = new SendfileResourceHandler(version, localResources, 0, resourceHandler);
+
+        server = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+        client = SocketChannel.open(server.getLocalAddress());
+        final SocketChannel accepted = server.accept();
+        drainer = new Thread(() -> drain(accepted), "sendfile-benchmark-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int resourceHandler() throws Exception {
+        final SocketResponse response = new SocketResponse(client);
+        resourceHandler.handleRequest(request(PATH.substring(1)), response);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int transferTo() throws Exception {
+        final SocketResponse response = new SocketResponse(client);
+        sendfileHandler.handleRequest(request(fingerprintedPath), response);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int sendfile() throws Exception {
+        final MockHttpServletRequest request = request(fingerprintedPath);
+        request.setAttribute(SendfileResourceHandler.SENDFILE_SUPPORT_ATTRIBUTE, Boolean.TRUE);
+        final SocketResponse response = new SocketResponse(client);
+        sendfileHandler.handleRequest(request, response);
+
+        final Path file = Path.of((String) request.getAttribute(SendfileResourceHandler.SENDFILE_FILENAME_ATTRIBUTE));
+        final long start = (Long) request.getAttribute(SendfileResourceHandler.SENDFILE_START_ATTRIBUTE);
+        final long end = (Long) request.getAttribute(SendfileResourceHandler.SENDFILE_END_ATTRIBUTE);
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            SendfileResourceHandler.transfer(channel, start, end - start, client);
+        }
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(final String pathWithinMapping) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/resources/" + pathWithinMapping);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, pathWithinMapping);
+        return request;
+    }
+
+    private static void drain(final SocketChannel channel) {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        try {
+            while (channel.read(buffer) >= 0) {
+                buffer.clear();
+            }
+        } catch (IOException ignored) {
+            // 벤치마크가 끝나 소켓이 닫혔다.
+        }
+    }
+
+    private static class SocketResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream outputStream;
+
+        SocketResponse(final SocketChannel channel) {
+            this.outputStream = new DelegatingServletOutputStream(Channels.newOutputStream(channel));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.version;
+
+import com.example.etag.StaticResourceEtags;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.DelegatingServletOutputStream;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.ResourceResolver;
+
+import javax.servlet.ServletOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 같은 정적 파일을 요청마다 gzip으로 압축해서 보내는 경우(Tomcat의 server.compression)와 미리 압축한 본문을 보내는 경우를 비교한다.
+ * onTheFlyGzip은 응답 스트림을 GZIPOutputStream으로 감싸 Tomcat의 GzipOutputFilter와 같은 일을 하게 한다.
+ * 단일 스레드 처리량의 역수가 요청당 CPU 시간이므로 두 값의 비율을 그대로 CPU 비용 비율로 볼 수 있다. 응답 본문은 버린다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrecompressedResourceBenchmark {
+
+    private static final String PATH = "js/bundle.js";
+
+    @Param({"16", "256", "1024"})
+    private int sizeKb;
+
+    private Path directory;
+    private ResourceHttpRequestHandler plainHandler;
+    private ResourceHttpRequestHandler precompressedHandler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("precompressed-benchmark");
+        Files.createDirectories(directory.resolve("js"));
+        Files.write(directory.resolve(PATH), javascript(sizeKb * 1024));
+
+        final StaticResourceEtags etags = new StaticResourceEtags(
+                new PathMatchingResourcePatternResolver(), directory.toUri().toString());
+        etags.precompute();
+        plainHandler = handler(new PathResourceResolver());
+        precompressedHandler = handler(new PrecompressedResourceResolver(etags), new PathResourceResolver());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int identity() throws Exception {
+        final DiscardingResponse response = new DiscardingResponse();
+        plainHandler.handleRequest(request(), response);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int onTheFlyGzip() throws Exception {
+        final DiscardingResponse response = new DiscardingResponse();
+        response.gzip();
+        plainHandler.handleRequest(request(), response);
+        response.finish();
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int precompressedGzip() throws Exception {
+        final DiscardingResponse response = new DiscardingResponse();
+        precompressedHandler.handleRequest(request(), response);
+        return response.getStatus();
+    }
+
+    private ResourceHttpRequestHandler handler(final ResourceResolver... resolvers) throws Exception {
+        final ResourceHttpRequestHandler handler = new ResourceHttpRequestHandler();
+        handler.setServletContext(new MockServletContext());
+        handler.setLocations(List.of(new FileSystemResource(directory.toString() + "/")));
+        handler.setResourceResolvers(List.of(resolvers));
+        handler.afterPropertiesSet();
+        return handler;
+    }
+
+    private static MockHttpServletRequest request() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/resources/1/" + PATH);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, PATH);
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        return request;
+    }
+
+    /**
+     * 실제 번들처럼 반복이 많지만 똑같지는 않은 자바스크립트를 만든다.
+     */
+    private static byte[] javascript(final int size) {
+        final StringBuilder builder = new StringBuilder(size + 128);
+        for (int i = 0; builder.length() < size; i++) {
+            builder.append("function handler").append(i).append("(event) { return event.target.value * ")
+                    .append(i % 97).append("; }\n");
+        }
+        return builder.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class DiscardingResponse extends MockHttpServletResponse {
+
+        private ServletOutputStream outputStream = new DelegatingServletOutputStream(OutputStream.nullOutputStream());
+        private GZIPOutputStream gzipOutputStream;
+
+        void gzip() throws IOException {
+            gzipOutputStream = new GZIPOutputStream(OutputStream.nullOutputStream());
+            outputStream = new DelegatingServletOutputStream(gzipOutputStream);
+        }
+
+        void finish() throws IOException {
+            gzipOutputStream.finish();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.version;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 정적 파일 수천 개에 대해 시작할 때 fingerprint를 계산하는 시간을 잰다.
+ * parallelInit은 ResourceVersion.init()이고, sequentialHash는 같은 파일을 한 스레드로 해시하는 기준값이다.
+ * 파일은 js, css 디렉터리 여러 개에 나눠 만들고 내용은 압축되지 않도록 난수로 채운다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceVersionBenchmark {
+
+    private static final int FILES_PER_DIRECTORY = 100;
+
+    @Param({"1000", "4000"})
+    private int fileCount;
+
+    @Param({"8"})
+    private int sizeKb;
+
+    private Path directory;
+    private String location;
+    private PathMatchingResourcePatternResolver resourcePatternResolver;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("resource-version-benchmark");
+        location = directory.toUri().toString();
+        resourcePatternResolver = new PathMatchingResourcePatternResolver();
+
+        final Random random = new Random(42);
+        final byte[] content = new byte[sizeKb * 1024];
+        for (int i = 0; i < fileCount; i++) {
+            final String type = i % 2 == 0 ? "js" : "css";
+            final Path parent = directory.resolve(type).resolve("module" + i / FILES_PER_DIRECTORY);
+            Files.createDirectories(parent);
+            random.nextBytes(content);
+            Files.write(parent.resolve("asset" + i + "." + type), content);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public String parallelInit() throws IOException {
+        final ResourceVersion resourceVersion = new ResourceVersion(resourcePatternResolver, location);
+        resourceVersion.init();
+        return resourceVersion.getVersion();
+    }
+
+    @Benchmark
+    public Map<String, String> sequentialHash() throws IOException {
+        final Map<String, String> fingerprints = new HashMap<>();
+        for (final Resource resource : resourcePatternResolver.getResources(location + "**/*")) {
+            if (!resource.isReadable()) {
+                continue;
+            }
+            try (final InputStream inputStream = resource.getInputStream()) {
+                fingerprints.put(resource.getURL().toString(), DigestUtils.md5DigestAsHex(inputStream));
+            }
+        }
+        return fingerprints;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.etag;
+
+import java.util.Locale;
+
+/**
+ * Accept-Encoding 헤더를 content coding과 q 값으로 나눠서 특정 coding을 받을 수 있는지 판단한다(RFC 9110 12.5.3).
+ * 이름이 정확히 같은 coding만 인정하고, 목록에 없으면 "*"의 q 값을 따른다. q=0이면 받을 수 없다는 뜻이다.
+ */
+public final class AcceptEncoding {
+
+    private static final String ANY = "*";
+
+    private AcceptEncoding() {
+    }
+
+    public static boolean accepts(final String acceptEncoding, final String contentCoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return false;
+        }
+        double anyQuality = 0;
+        for (final String element : acceptEncoding.split(",")) {
+            final String[] parts = element.split(";");
+            final String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals(contentCoding)) {
+                return quality(parts) > 0;
+            }
+            if (coding.equals(ANY)) {
+                anyQuality = quality(parts);
+            }
+        }
+        return anyQuality > 0;
+    }
+
+    /**
+     * q 파라미터가 없으면 1이다. 값을 읽을 수 없으면 받지 않는 쪽으로 본다.
+     */
+    private static double quality(final String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -3,8 +3,12 @@ package com.example.etag;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static com.example.version.CacheBustingWebConfig.STATIC_RESOURCE_LOCATION;
+
 @Configuration
 public class EtagFilterConfiguration {
 
@@ -13,7 +17,24 @@ public class EtagFilterConfiguration {
         final ShallowEtagHeaderFilter shallowEtagHeaderFilter = new ShallowEtagHeaderFilter();
         final FilterRegistrationBean<ShallowEtagHeaderFilter> filterRegistrationBean =
                 new FilterRegistrationBean<>(shallowEtagHeaderFilter);
-        filterRegistrationBean.addUrlPatterns("/etag/*", "/resources/*");
+        filterRegistrationBean.addUrlPatterns("/etag/*");
+
+        return filterRegistrationBean;
+    }
+
+    @Bean
+    public StaticResourceEtags staticResourceEtags() {
+        return new StaticResourceEtags(new PathMatchingResourcePatternResolver(), STATIC_RESOURCE_LOCATION);
+    }
+
+    /**
+     * 정적 파일은 내용이 배포 후 바뀌지 않으므로 응답 본문을 버퍼링하는 ShallowEtagHeaderFilter 대신 미리 계산한 ETag를 사용한다.
+     */
+    @Bean
+    public FilterRegistrationBean<StaticResourceEtagFilter> staticResourceEtagFilter(final StaticResourceEtags staticResourceEtags) {
+        final FilterRegistrationBean<StaticResourceEtagFilter> filterRegistrationBean =
+                new FilterRegistrationBean<>(new StaticResourceEtagFilter(staticResourceEtags));
+        filterRegistrationBean.addUrlPatterns(PREFIX_STATIC_RESOURCES + "/*");
 
         return filterRegistrationBean;
     }
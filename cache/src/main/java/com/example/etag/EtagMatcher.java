@@ -0,0 +1,38 @@
+package com.example.etag;
+
+/**
+ * If-None-Match 헤더와 ETag를 약한 비교(weak comparison)로 비교한다.
+ * Tomcat이 응답을 압축하면서 strong ETag를 W/ 접두사가 붙은 weak ETag로 바꿔 보내므로, 접두사는 무시하고 값만 비교한다.
+ */
+public final class EtagMatcher {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private EtagMatcher() {
+    }
+
+    public static boolean matches(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        final String expected = stripWeakPrefix(etag);
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeakPrefix(trimmed).equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 압축한 본문은 원본과 바이트가 다르므로 원본 ETag에 "-gzip"처럼 content coding을 붙인 ETag를 사용한다.
+     */
+    public static String encoded(final String etag, final String contentCoding) {
+        return etag.substring(0, etag.length() - 1) + "-" + contentCoding + "\"";
+    }
+
+    private static String stripWeakPrefix(final String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.etag;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static com.example.version.CacheBustingWebConfig.CACHE_CONTROL_STATIC_RESOURCES;
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static com.example.version.PrecompressedResourceResolver.CONTENT_CODINGS;
+
+/**
+ * /resources/{version}/** 요청에 StaticResourceEtags가 미리 계산한 ETag를 붙인다.
+ * If-None-Match가 일치하면 리소스 핸들러를 호출하지 않고 바로 304를 응답하므로 파일을 읽지 않는다.
+ * ShallowEtagHeaderFilter와 달리 응답 본문을 메모리에 복사해 두지 않는다.
+ */
+public class StaticResourceEtagFilter extends OncePerRequestFilter {
+
+    private final StaticResourceEtags etags;
+
+    public StaticResourceEtagFilter(final StaticResourceEtags etags) {
+        this.etags = etags;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        final String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final String path = resourcePath(request);
+        final String etag = path == null ? null : etags.findEtag(path);
+        if (etag == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        final String matched = findMatchedEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag);
+        if (matched != null) {
+            response.setHeader(HttpHeaders.ETAG, matched);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_STATIC_RESOURCES.getHeaderValue());
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 압축본을 받은 클라이언트는 "-gzip"처럼 content coding이 붙은 ETag로 재요청하므로 원본 ETag와 압축본 ETag를 모두 비교한다.
+     */
+    private static String findMatchedEtag(final String ifNoneMatch, final String etag) {
+        if (EtagMatcher.matches(ifNoneMatch, etag)) {
+            return etag;
+        }
+        for (final String contentCoding : CONTENT_CODINGS) {
+            final String encoded = EtagMatcher.encoded(etag, contentCoding);
+            if (EtagMatcher.matches(ifNoneMatch, encoded)) {
+                return encoded;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * "/resources/{version}/js/index.js"에서 버전 뒤의 "/js/index.js"를 꺼낸다.
+     */
+    private static String resourcePath(final HttpServletRequest request) {
+        final String uri = request.getRequestURI().substring(request.getContextPath().length());
+        final String prefix = PREFIX_STATIC_RESOURCES + "/";
+        if (!uri.startsWith(prefix)) {
+            return null;
+        }
+        final int versionEnd = uri.indexOf('/', prefix.length());
+        if (versionEnd < 0) {
+            return null;
+        }
+        return uri.substring(versionEnd);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.etag;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 정적 파일마다 내용의 MD5로 만든 strong ETag를 미리 계산해서 보관한다.
+ *
+ * 시작할 때 location 아래 모든 파일의 ETag를 계산하고, 그 뒤에 추가된 파일은 처음 요청될 때 계산한다.
+ * 파일 시스템에 있는 파일은 요청마다 수정 시각과 크기를 확인해서 바뀌었으면 다시 계산한다.
+ * jar 안의 파일은 배포 후 바뀌지 않으므로 다시 확인하지 않는다.
+ * 내용은 스트림으로 읽으며 해시하므로 파일 전체를 메모리에 올리지 않는다.
+ */
+public class StaticResourceEtags {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticResourceEtags.class);
+
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final String location;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public StaticResourceEtags(final ResourcePatternResolver resourcePatternResolver, final String location) {
+        this.resourcePatternResolver = resourcePatternResolver;
+        this.location = location.endsWith("/") ? location : location + "/";
+    }
+
+    @PostConstruct
+    public void precompute() throws IOException {
+        final Resource root = resourcePatternResolver.getResource(location);
+        if (!root.exists()) {
+            return;
+        }
+        final String rootUrl = root.getURL().toString();
+        for (final Resource resource : resourcePatternResolver.getResources(location + "**/*")) {
+            if (!resource.isReadable()) {
+                continue;
+            }
+            final String url = resource.getURL().toString();
+            if (url.startsWith(rootUrl)) {
+                final String path = "/" + url.substring(rootUrl.length());
+                entries.put(path, Entry.of(resource));
+            }
+        }
+        log.info("precomputed {} static resource etags under {}", entries.size(), location);
+    }
+
+    /**
+     * location 기준 경로("/js/index.js")의 ETag. 파일이 없으면 null을 돌려준다.
+     */
+    public String findEtag(final String path) {
+        if (path.contains("..")) {
+            return null;
+        }
+        final Entry entry = entries.get(path);
+        if (entry != null && entry.isFresh()) {
+            return entry.etag;
+        }
+
+        final Resource resource = resourcePatternResolver.getResource(location + path.substring(1));
+        if (!resource.isReadable()) {
+            entries.remove(path);
+            return null;
+        }
+        final Entry computed = Entry.of(resource);
+        entries.put(path, computed);
+        return computed.etag;
+    }
+
+    private static class Entry {
+
+        private final Resource resource;
+        private final boolean revalidate;
+        private final long lastModified;
+        private final long contentLength;
+        private final String etag;
+
+        private Entry(final Resource resource, final boolean revalidate,
+                      final long lastModified, final long contentLength, final String etag) {
+            this.resource = resource;
+            this.revalidate = revalidate;
+            this.lastModified = lastModified;
+            this.contentLength = contentLength;
+            this.etag = etag;
+        }
+
+        static Entry of(final Resource resource) {
+            try {
+                final long lastModified = resource.lastModified();
+                final long contentLength = resource.contentLength();
+                try (final InputStream inputStream = resource.getInputStream()) {
+                    final String etag = "\"" + DigestUtils.md5DigestAsHex(inputStream) + "\"";
+                    return new Entry(resource, resource.isFile(), lastModified, contentLength, etag);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("failed to compute etag : " + resource, e);
+            }
+        }
+
+        boolean isFresh() {
+            if (!revalidate) {
+                return true;
+            }
+            try {
+                return resource.lastModified() == lastModified && resource.contentLength() == contentLength;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.sendfile;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * sendfile, FileChannel.transferTo는 파일 시스템의 파일만 보낼 수 있으므로 정적 파일을 로컬 디렉터리의 파일로 바꿔준다.
+ *
+ * 파일 시스템에 있는 리소스는 그 파일을 그대로 쓰고, jar 안의 리소스는 처음 요청될 때 directory/{fingerprint} 아래로 한 번 풀어둔다.
+ * 경로에 fingerprint가 들어가므로 같은 directory를 쓰는 다른 버전의 인스턴스가 서로의 파일을 덮어쓰지 않는다.
+ * 풀 때는 임시 파일에 다 쓴 뒤 옮기므로 다른 요청이 쓰다 만 파일을 보내지 않는다.
+ */
+public class LocalResourceCache {
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final Path directory;
+    private final Map<String, Path> files = new ConcurrentHashMap<>();
+
+    public LocalResourceCache(final ResourceLoader resourceLoader, final String location, final Path directory) {
+        this.resourceLoader = resourceLoader;
+        this.location = location.endsWith("/") ? location : location + "/";
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    /**
+     * location 기준 경로("/js/index.js")의 로컬 파일. fingerprint는 ResourceVersion.getFingerprint(path)의 값이다.
+     * 리소스가 없으면 null을 돌려준다.
+     */
+    public Path findFile(final String fingerprint, final String path) {
+        if (path.contains("..") || fingerprint.contains("/") || fingerprint.contains("..")) {
+            return null;
+        }
+        final String key = fingerprint + path;
+        final Path cached = files.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Resource resource = resourceLoader.getResource(location + path.substring(1));
+        if (!resource.isReadable()) {
+            return null;
+        }
+        try {
+            final Path file = resource.isFile() ? resource.getFile().toPath() : extract(fingerprint, path, resource);
+            files.put(key, file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to extract static resource : " + resource, e);
+        }
+    }
+
+    private Path extract(final String fingerprint, final String path, final Resource resource) throws IOException {
+        final Path target = directory.resolve(fingerprint).resolve(path.substring(1)).normalize();
+        if (!target.startsWith(directory)) {
+            throw new IOException("invalid static resource path : " + path);
+        }
+        Files.createDirectories(target.getParent());
+        final Path temporary = Files.createTempFile(target.getParent(), ".extract", ".tmp");
+        try (final InputStream inputStream = resource.getInputStream()) {
+            Files.copy(inputStream, temporary, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return target;
+    }
+}
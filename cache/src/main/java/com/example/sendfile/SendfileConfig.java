@@ -0,0 +1,50 @@
+package com.example.sendfile;
+
+import com.example.version.ResourceVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static com.example.version.CacheBustingWebConfig.STATIC_RESOURCE_LOCATION;
+
+@Configuration
+@ConditionalOnProperty(prefix = "cache.sendfile", name = "enabled", havingValue = "true")
+public class SendfileConfig {
+
+    private static final String STATIC_RESOURCE_PATTERN = PREFIX_STATIC_RESOURCES + "/**";
+
+    @Bean
+    public LocalResourceCache localResourceCache(
+            final ResourceLoader resourceLoader,
+            @Value("${cache.sendfile.directory:${java.io.tmpdir}/cache-static-resources}") final String directory) {
+        return new LocalResourceCache(resourceLoader, STATIC_RESOURCE_LOCATION, Path.of(directory));
+    }
+
+    @Bean
+    public StaticResourceHandlerDelegate staticResourceHandlerDelegate() {
+        return new StaticResourceHandlerDelegate(STATIC_RESOURCE_PATTERN);
+    }
+
+    /**
+     * CacheBustingWebConfig가 등록한 리소스 핸들러 매핑(LOWEST_PRECEDENCE - 1)보다 먼저 /resources/**를 가져간다.
+     * 작은 파일은 컨텍스트가 뜬 뒤 한 번 찾아둔 기존 리소스 핸들러에 넘긴다.
+     */
+    @Bean
+    public SimpleUrlHandlerMapping sendfileHandlerMapping(
+            final ResourceVersion resourceVersion,
+            final LocalResourceCache localResourceCache,
+            final StaticResourceHandlerDelegate staticResourceHandlerDelegate,
+            @Value("${cache.sendfile.minimum-size:262144}") final long minimumSize) {
+        final SendfileResourceHandler handler = new SendfileResourceHandler(resourceVersion, localResourceCache, minimumSize,
+                staticResourceHandlerDelegate);
+        return new SimpleUrlHandlerMapping(Map.of(STATIC_RESOURCE_PATTERN, handler), Ordered.LOWEST_PRECEDENCE - 2);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.sendfile;
+
+import com.example.version.ResourceVersion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static com.example.version.CacheBustingWebConfig.CACHE_CONTROL_STATIC_RESOURCES;
+
+/**
+ * /resources/{fingerprint}/** 중 큰 파일을 사용자 공간으로 복사하지 않고 보낸다.
+ *
+ * Tomcat이 sendfile을 지원하면(org.apache.tomcat.sendfile.support) 파일 이름과 구간만 요청 속성으로 넘기고, 실제 전송은 커넥터가 한다.
+ * 지원하지 않으면 FileChannel.transferTo로 응답 스트림에 쓴다.
+ * Range 요청은 구간 하나만 206으로 응답하고, 여러 구간을 요청하면 전체를 200으로 응답한다.
+ * fingerprint가 붙은 URL의 내용은 바뀌지 않으므로 If-Range는 확인하지 않는다.
+ *
+ * minimumSize보다 작은 파일은 압축본을 보낼 수 있도록 기존 리소스 핸들러(delegate)에 넘긴다.
+ * ETag와 304 응답은 앞에 있는 StaticResourceEtagFilter가 처리한다.
+ */
+public class SendfileResourceHandler implements HttpRequestHandler {
+
+    public static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    public static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    public static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    public static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private final ResourceVersion version;
+    private final LocalResourceCache localResources;
+    private final long minimumSize;
+    private final HttpRequestHandler delegate;
+
+    public SendfileResourceHandler(final ResourceVersion version,
+                                   final LocalResourceCache localResources,
+                                   final long minimumSize,
+                                   final HttpRequestHandler delegate) {
+        this.version = version;
+        this.localResources = localResources;
+        this.minimumSize = minimumSize;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handleRequest(final HttpServletRequest request,
+                              final HttpServletResponse response) throws ServletException, IOException {
+        final String method = request.getMethod();
+        final String fingerprintedPath = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        final String path = fingerprintedPath == null ? null : version.resolvePath(fingerprintedPath);
+        final Path file = path == null ? null : localResources.findFile(version.getFingerprint(path), path);
+        if (file == null || (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method))) {
+            delegate.handleRequest(request, response);
+            return;
+        }
+        final long length = Files.size(file);
+        if (length < minimumSize) {
+            delegate.handleRequest(request, response);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        final String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null) {
+            try {
+                final List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    // getRangeStart는 파일 길이를 넘는 시작 위치("bytes=<length>-")나 빈 접미 구간("bytes=-0")을 거르지 않는다.
+                    if (start >= length || end < start) {
+                        throw new IllegalArgumentException("unsatisfiable range : " + range);
+                    }
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        final String contentType = request.getServletContext().getMimeType(file.getFileName().toString());
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_STATIC_RESOURCES.getHeaderValue());
+        response.setContentLengthLong(end - start + 1);
+        if (HttpMethod.HEAD.matches(method)) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+            return;
+        }
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, start, end - start + 1, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    /**
+     * target이 소켓이나 파일 채널이면 커널이 바로 복사하고, 그렇지 않으면 JDK가 버퍼 하나로 나눠 쓴다.
+     */
+    public static void transfer(final FileChannel source, final long position, final long count,
+                                final WritableByteChannel target) throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            final long written = source.transferTo(position + transferred, count - transferred, target);
+            if (written <= 0) {
+                throw new EOFException("static resource ended before " + count + " bytes were sent");
+            }
+            transferred += written;
+        }
+    }
+}
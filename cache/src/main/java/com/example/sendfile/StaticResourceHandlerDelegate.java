@@ -0,0 +1,68 @@
+package com.example.sendfile;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * SendfileResourceHandler가 작은 파일을 넘길 기존 리소스 핸들러.
+ *
+ * 리소스 핸들러 매핑은 컨텍스트가 뜬 뒤에야 모두 준비되므로 ContextRefreshedEvent에서 한 번만 찾아둔다.
+ * ResourceUrlProvider처럼 SimpleUrlHandlerMapping 빈에서 pattern에 매핑된 ResourceHttpRequestHandler를 찾고, 없으면 기동을 실패시킨다.
+ */
+public class StaticResourceHandlerDelegate
+        implements HttpRequestHandler, ApplicationListener<ContextRefreshedEvent>, ApplicationContextAware {
+
+    private final String pattern;
+    private ApplicationContext applicationContext;
+    private volatile HttpRequestHandler resourceHandler;
+
+    public StaticResourceHandlerDelegate(final String pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public void setApplicationContext(final ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * 자식 컨텍스트의 이벤트도 전달되므로 이 빈이 속한 컨텍스트의 이벤트만 처리한다.
+     */
+    @Override
+    public void onApplicationEvent(final ContextRefreshedEvent event) {
+        if (event.getApplicationContext() == applicationContext) {
+            resourceHandler = findResourceHandler(applicationContext);
+        }
+    }
+
+    @Override
+    public void handleRequest(final HttpServletRequest request,
+                              final HttpServletResponse response) throws ServletException, IOException {
+        final HttpRequestHandler handler = resourceHandler;
+        if (handler == null) {
+            throw new IllegalStateException("static resource handler for " + pattern + " is not resolved yet");
+        }
+        handler.handleRequest(request, response);
+    }
+
+    private HttpRequestHandler findResourceHandler(final ApplicationContext applicationContext) {
+        for (final SimpleUrlHandlerMapping mapping : applicationContext.getBeansOfType(SimpleUrlHandlerMapping.class).values()) {
+            final Object handler = mapping.getHandlerMap().get(pattern);
+            if (handler instanceof ResourceHttpRequestHandler) {
+                return (ResourceHttpRequestHandler) handler;
+            }
+        }
+        throw new IllegalStateException("no ResourceHttpRequestHandler is mapped to " + pattern
+                + "; register it with addResourceHandlers before enabling cache.sendfile");
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.version;
 
+import com.example.etag.StaticResourceEtags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.CacheControl;
@@ -11,19 +12,25 @@ import java.time.Duration;
 public class CacheBustingWebConfig implements WebMvcConfigurer {
 
     public static final String PREFIX_STATIC_RESOURCES = "/resources";
+    public static final String STATIC_RESOURCE_LOCATION = "classpath:/static/";
+    public static final CacheControl CACHE_CONTROL_STATIC_RESOURCES = CacheControl.maxAge(Duration.ofDays(365)).cachePublic();
 
     private final ResourceVersion version;
+    private final StaticResourceEtags etags;
 
     @Autowired
-    public CacheBustingWebConfig(ResourceVersion version) {
+    public CacheBustingWebConfig(ResourceVersion version, StaticResourceEtags etags) {
         this.version = version;
+        this.etags = etags;
     }
 
     @Override
     public void addResourceHandlers(final ResourceHandlerRegistry registry) {
-        final CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(365)).cachePublic();
-        registry.addResourceHandler(PREFIX_STATIC_RESOURCES + "/" + version.getVersion() + "/**")
-                .setCacheControl(cacheControl)
-                .addResourceLocations("classpath:/static/");
+        registry.addResourceHandler(PREFIX_STATIC_RESOURCES + "/**")
+                .setCacheControl(CACHE_CONTROL_STATIC_RESOURCES)
+                .addResourceLocations(STATIC_RESOURCE_LOCATION)
+                .resourceChain(true)
+                .addResolver(new FingerprintResourceResolver(version))
+                .addResolver(new PrecompressedResourceResolver(etags));
     }
 }
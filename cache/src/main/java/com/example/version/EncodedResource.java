@@ -0,0 +1,102 @@
+package com.example.version;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.HttpResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+
+/**
+ * Accept-Encoding으로 고른 표현(representation). 본문은 encoded에서 읽고, 파일 이름과 수정 시각은 원본을 따른다.
+ * 파일 이름을 원본에서 가져오므로 ".js.gz"가 아니라 원본의 Content-Type으로 응답한다.
+ * contentCoding이 null이면 원본 그대로이고 Vary 헤더만 붙인다.
+ */
+class EncodedResource extends AbstractResource implements HttpResource {
+
+    private final Resource original;
+    private final Resource encoded;
+    private final String contentCoding;
+    private final String etag;
+
+    EncodedResource(final Resource original, final Resource encoded, final String contentCoding, final String etag) {
+        this.original = original;
+        this.encoded = encoded;
+        this.contentCoding = contentCoding;
+        this.etag = etag;
+    }
+
+    @Override
+    public HttpHeaders getResponseHeaders() {
+        final HttpHeaders headers = original instanceof HttpResource
+                ? new HttpHeaders(((HttpResource) original).getResponseHeaders())
+                : new HttpHeaders();
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (contentCoding != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, contentCoding);
+        }
+        if (etag != null) {
+            headers.set(HttpHeaders.ETAG, etag);
+        }
+        return headers;
+    }
+
+    @Override
+    public boolean exists() {
+        return encoded.exists();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return encoded.getInputStream();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return encoded.contentLength();
+    }
+
+    @Override
+    public boolean isFile() {
+        return encoded.isFile();
+    }
+
+    @Override
+    public File getFile() throws IOException {
+        return encoded.getFile();
+    }
+
+    @Override
+    public URL getURL() throws IOException {
+        return original.getURL();
+    }
+
+    @Override
+    public URI getURI() throws IOException {
+        return original.getURI();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return original.lastModified();
+    }
+
+    @Override
+    public Resource createRelative(final String relativePath) throws IOException {
+        return original.createRelative(relativePath);
+    }
+
+    @Override
+    public String getFilename() {
+        return original.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return (contentCoding == null ? "" : contentCoding + " ") + original.getDescription();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.version;
+
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/**
+ * "{fingerprint}/js/index.js" 요청 경로를 ResourceVersion의 조회 맵으로 "js/index.js"로 바꿔 다음 resolver에 넘긴다.
+ * fingerprint가 파일 내용과 맞지 않으면 오래된 내용이 새 URL로 캐시되지 않도록 찾지 못한 것으로 처리한다.
+ */
+public class FingerprintResourceResolver implements ResourceResolver {
+
+    private final ResourceVersion version;
+
+    public FingerprintResourceResolver(final ResourceVersion version) {
+        this.version = version;
+    }
+
+    @Override
+    public Resource resolveResource(final HttpServletRequest request,
+                                    final String requestPath,
+                                    final List<? extends Resource> locations,
+                                    final ResourceResolverChain chain) {
+        final String path = version.resolvePath(requestPath.startsWith("/") ? requestPath.substring(1) : requestPath);
+        if (path == null) {
+            return null;
+        }
+        return chain.resolveResource(request, path.substring(1), locations);
+    }
+
+    @Override
+    public String resolveUrlPath(final String resourcePath,
+                                 final List<? extends Resource> locations,
+                                 final ResourceResolverChain chain) {
+        final String urlPath = chain.resolveUrlPath(resourcePath, locations);
+        if (urlPath == null) {
+            return null;
+        }
+        final String path = urlPath.startsWith("/") ? urlPath : "/" + urlPath;
+        return version.getFingerprint(path) + path;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.version;
+
+import com.example.etag.AcceptEncoding;
+import com.example.etag.EtagMatcher;
+import com.example.etag.StaticResourceEtags;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+
+/**
+ * 정적 파일을 Accept-Encoding에 맞는 압축본으로 바꿔준다.
+ *
+ * Accept-Encoding에서 q 값이 0보다 큰 coding만 고른다.
+ * 원본 옆에 ".br", ".gz" 파일이 있으면(빌드에서 만들어 둔 경우) 그 파일을 그대로 보낸다.
+ * ".gz" 파일이 없으면 처음 요청될 때 한 번 gzip으로 압축해서 메모리에 보관한다. brotli 인코더는 의존성에 없으므로 ".br"은 미리 만들어 둔 파일만 사용한다.
+ * 압축해도 작아지지 않는 파일은 원본을 보낸다. 어느 쪽이든 Vary: Accept-Encoding을 붙이고, 압축본에는 "-gzip"처럼 content coding을 붙인 ETag를 사용한다.
+ * Content-Encoding이 이미 있는 응답은 Tomcat이 다시 압축하지 않는다.
+ *
+ * fingerprint가 붙은 URL의 내용은 바뀌지 않으므로 압축본은 URL 단위로 보관하고 다시 확인하지 않는다.
+ */
+public class PrecompressedResourceResolver implements ResourceResolver {
+
+    public static final String BROTLI = "br";
+    public static final String GZIP = "gzip";
+    public static final List<String> CONTENT_CODINGS = List.of(BROTLI, GZIP);
+
+    private static final int MINIMUM_GZIP_SIZE = 256;
+    private static final byte[] NOT_COMPRESSIBLE = new byte[0];
+
+    private final StaticResourceEtags etags;
+    private final Map<String, byte[]> gzippedBodies = new ConcurrentHashMap<>();
+
+    public PrecompressedResourceResolver(final StaticResourceEtags etags) {
+        this.etags = etags;
+    }
+
+    @Override
+    public Resource resolveResource(final HttpServletRequest request,
+                                    final String requestPath,
+                                    final List<? extends Resource> locations,
+                                    final ResourceResolverChain chain) {
+        final Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || request == null) {
+            return resource;
+        }
+        final String etag = etags.findEtag(requestPath.startsWith("/") ? requestPath : "/" + requestPath);
+        final String acceptEncoding = request.getHeader(ACCEPT_ENCODING);
+        if (AcceptEncoding.accepts(acceptEncoding, BROTLI)) {
+            final Resource brotli = sibling(resource, ".br");
+            if (brotli != null) {
+                return new EncodedResource(resource, brotli, BROTLI, encodedEtag(etag, BROTLI));
+            }
+        }
+        if (AcceptEncoding.accepts(acceptEncoding, GZIP)) {
+            final Resource gzipped = gzipped(resource);
+            if (gzipped != null) {
+                return new EncodedResource(resource, gzipped, GZIP, encodedEtag(etag, GZIP));
+            }
+        }
+        return new EncodedResource(resource, resource, null, etag);
+    }
+
+    @Override
+    public String resolveUrlPath(final String resourcePath,
+                                 final List<? extends Resource> locations,
+                                 final ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourcePath, locations);
+    }
+
+    private Resource gzipped(final Resource resource) {
+        final Resource precompressed = sibling(resource, ".gz");
+        if (precompressed != null) {
+            return precompressed;
+        }
+        final String key = resource.getDescription();
+        byte[] body = gzippedBodies.get(key);
+        if (body == null) {
+            body = gzip(resource);
+            gzippedBodies.put(key, body);
+        }
+        return body == NOT_COMPRESSIBLE ? null : new ByteArrayResource(body);
+    }
+
+    private static byte[] gzip(final Resource resource) {
+        try (final InputStream inputStream = resource.getInputStream()) {
+            final byte[] body = inputStream.readAllBytes();
+            if (body.length < MINIMUM_GZIP_SIZE) {
+                return NOT_COMPRESSIBLE;
+            }
+            final ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 2);
+            try (final GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipped)) {
+                gzipOutputStream.write(body);
+            }
+            return gzipped.size() < body.length ? gzipped.toByteArray() : NOT_COMPRESSIBLE;
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to gzip : " + resource, e);
+        }
+    }
+
+    private static Resource sibling(final Resource resource, final String extension) {
+        try {
+            final Resource sibling = resource.createRelative(resource.getFilename() + extension);
+            return sibling.isReadable() ? sibling : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String encodedEtag(final String etag, final String contentCoding) {
+        return etag == null ? null : EtagMatcher.encoded(etag, contentCoding);
+    }
+}
@@ -1,29 +1,137 @@
 package com.example.version;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
 
 import javax.annotation.PostConstruct;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static com.example.version.CacheBustingWebConfig.STATIC_RESOURCE_LOCATION;
+
+/**
+ * 정적 파일마다 내용의 해시로 만든 fingerprint를 보관한다.
+ *
+ * 시작할 때 location 아래 파일을 병렬로 읽어 fingerprint를 계산한다. 내용이 같으면 배포를 다시 해도, 다른 서버에서 띄워도 URL이 같다.
+ * getVersion()은 모든 fingerprint를 합쳐서 다시 해시한 값이라 파일이 하나라도 바뀌면 달라진다.
+ * "/resources/{fingerprint}/js/index.js"처럼 파일 자신의 fingerprint나 getVersion()이 붙은 경로만 원래 경로로 풀어준다.
+ */
 @Component
 public class ResourceVersion {
 
-    private static final String DEFAULT_DATE_TIME_FORMAT = "yyyyMMddHHmmSS";
+    private static final Logger log = LoggerFactory.getLogger(ResourceVersion.class);
+
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final String location;
 
+    private Map<String, String> fingerprintsByPath = Map.of();
+    private Map<String, String> pathsByFingerprintedPath = Map.of();
     private String version;
 
+    public ResourceVersion() {
+        this(new PathMatchingResourcePatternResolver(), STATIC_RESOURCE_LOCATION);
+    }
+
+    public ResourceVersion(final ResourcePatternResolver resourcePatternResolver, final String location) {
+        this.resourcePatternResolver = resourcePatternResolver;
+        this.location = location.endsWith("/") ? location : location + "/";
+    }
+
     @PostConstruct
-    public void init() {
-        this.version = now();
+    public void init() throws IOException {
+        final long startedAt = System.nanoTime();
+        final Map<String, String> fingerprints = computeFingerprints();
+
+        final Map<String, String> fingerprintedPaths = new HashMap<>(fingerprints.size() * 2);
+        fingerprints.forEach((path, fingerprint) -> fingerprintedPaths.put(fingerprint + path, path));
+        final String aggregate = aggregate(fingerprints);
+        fingerprints.keySet().forEach(path -> fingerprintedPaths.put(aggregate + path, path));
+
+        this.fingerprintsByPath = fingerprints;
+        this.pathsByFingerprintedPath = fingerprintedPaths;
+        this.version = aggregate;
+        log.info("computed {} static resource fingerprints under {} in {} ms",
+                fingerprints.size(), location, (System.nanoTime() - startedAt) / 1_000_000);
     }
 
+    /**
+     * 모든 fingerprint를 합친 버전. 한 파일이라도 내용이 바뀌면 달라진다.
+     */
     public String getVersion() {
         return version;
     }
 
-    private static String now() {
-        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DEFAULT_DATE_TIME_FORMAT);
-        return LocalDateTime.now().format(formatter);
+    /**
+     * location 기준 경로("/js/index.js")의 fingerprint. 시작할 때 없던 파일이면 getVersion()을 돌려준다.
+     */
+    public String getFingerprint(final String path) {
+        return fingerprintsByPath.getOrDefault(path, version);
+    }
+
+    /**
+     * "{fingerprint}/js/index.js"를 "/js/index.js"로 풀어준다. fingerprint가 맞지 않으면 null을 돌려준다.
+     */
+    public String resolvePath(final String fingerprintedPath) {
+        return pathsByFingerprintedPath.get(fingerprintedPath);
+    }
+
+    private Map<String, String> computeFingerprints() throws IOException {
+        final Resource root = resourcePatternResolver.getResource(location);
+        if (!root.exists()) {
+            return Map.of();
+        }
+        final String rootUrl = root.getURL().toString();
+        final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+        Arrays.stream(resourcePatternResolver.getResources(location + "**/*"))
+                .parallel()
+                .filter(Resource::isReadable)
+                .forEach(resource -> {
+                    final String url = toUrl(resource);
+                    if (url.startsWith(rootUrl)) {
+                        fingerprints.put("/" + url.substring(rootUrl.length()), fingerprint(resource));
+                    }
+                });
+        return fingerprints;
+    }
+
+    /**
+     * 경로 순서로 정렬해서 합치므로 파일을 읽은 순서와 상관없이 같은 값이 나온다.
+     */
+    private static String aggregate(final Map<String, String> fingerprints) {
+        final StringBuilder builder = new StringBuilder();
+        new TreeMap<>(fingerprints).forEach((path, fingerprint) ->
+                builder.append(path).append('=').append(fingerprint).append('\n'));
+        return DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8))
+                .substring(0, FINGERPRINT_LENGTH);
+    }
+
+    private static String fingerprint(final Resource resource) {
+        try (final InputStream inputStream = resource.getInputStream()) {
+            return DigestUtils.md5DigestAsHex(inputStream).substring(0, FINGERPRINT_LENGTH);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to compute fingerprint : " + resource, e);
+        }
+    }
+
+    private static String toUrl(final Resource resource) {
+        try {
+            return resource.getURL().toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -20,6 +20,6 @@ public class VersionHandlebarsHelper {
 
     public String staticUrls(String path, Options options) {
         log.debug("static url : {}", path);
-        return String.format("/resources/%s%s", version.getVersion(), path);
+        return String.format("/resources/%s%s", version.getFingerprint(path), path);
     }
 }
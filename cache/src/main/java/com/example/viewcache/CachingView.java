@@ -0,0 +1,137 @@
+package com.example.viewcache;
+
+import com.example.etag.AcceptEncoding;
+import com.example.etag.EtagMatcher;
+import com.example.version.ResourceVersion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.View;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 실제 뷰의 렌더링 결과를 RenderedViewCache에 보관해 두고 재사용하는 뷰.
+ *
+ * 응답에는 항상 ETag를 붙이고, If-None-Match가 일치하면 본문 없이 304를 응답한다.
+ * 클라이언트가 gzip을 받을 수 있으면 미리 압축해둔 본문을 Content-Encoding: gzip으로 보내므로 Tomcat이 다시 압축하지 않는다.
+ * Cache-Control은 CacheInterceptor가 붙이므로 여기서는 다루지 않는다.
+ * 응답 상태가 2xx가 아니면(오류 페이지 등) 캐시와 ETag 없이 실제 뷰에 그대로 넘긴다.
+ */
+public class CachingView implements View {
+
+    private static final int MINIMUM_GZIP_SIZE = 256;
+
+    private final String viewName;
+    private final View delegate;
+    private final RenderedViewCache cache;
+    private final ResourceVersion resourceVersion;
+
+    public CachingView(final String viewName, final View delegate,
+                       final RenderedViewCache cache, final ResourceVersion resourceVersion) {
+        this.viewName = viewName;
+        this.delegate = delegate;
+        this.cache = cache;
+        this.resourceVersion = resourceVersion;
+    }
+
+    @Override
+    public String getContentType() {
+        return delegate.getContentType();
+    }
+
+    @Override
+    public void render(final Map<String, ?> model,
+                       final HttpServletRequest request,
+                       final HttpServletResponse response) throws Exception {
+        if (!isSuccessful(response.getStatus())) {
+            delegate.render(model, request, response);
+            return;
+        }
+        final RenderedViewCache.Key key = new RenderedViewCache.Key(viewName, cacheableModel(model), resourceVersion.getVersion());
+        RenderedPage page = cache.get(key);
+        if (page == null) {
+            page = renderPage(model, request, response);
+            cache.put(key, page);
+        }
+        write(page, request, response);
+    }
+
+    private static boolean isSuccessful(final int status) {
+        return status >= 200 && status < 300;
+    }
+
+    /**
+     * 프레임워크가 넣는 BindingResult와 null 값은 렌더링 결과에 영향을 주지 않으므로 키에서 뺀다.
+     */
+    private static Map<String, ?> cacheableModel(final Map<String, ?> model) {
+        if (model == null || model.isEmpty()) {
+            return Map.of();
+        }
+        final Map<String, Object> cacheable = new HashMap<>();
+        model.forEach((name, value) -> {
+            if (value != null && !name.startsWith(BindingResult.MODEL_KEY_PREFIX)) {
+                cacheable.put(name, value);
+            }
+        });
+        return cacheable;
+    }
+
+    private RenderedPage renderPage(final Map<String, ?> model,
+                                    final HttpServletRequest request,
+                                    final HttpServletResponse response) throws Exception {
+        final ContentCachingResponseWrapper buffer = new ContentCachingResponseWrapper(response);
+        delegate.render(model, request, buffer);
+        final byte[] body = buffer.getContentAsByteArray();
+        final String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        return new RenderedPage(buffer.getContentType(), body, gzip(body), etag);
+    }
+
+    private static byte[] gzip(final byte[] body) throws IOException {
+        if (body.length < MINIMUM_GZIP_SIZE) {
+            return null;
+        }
+        final ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 2);
+        try (final GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipped)) {
+            gzipOutputStream.write(body);
+        }
+        if (gzipped.size() >= body.length) {
+            return null;
+        }
+        return gzipped.toByteArray();
+    }
+
+    private static void write(final RenderedPage page,
+                              final HttpServletRequest request,
+                              final HttpServletResponse response) throws IOException {
+        final boolean gzip = page.hasGzippedBody() && acceptsGzip(request);
+        final String etag = gzip ? page.getGzippedEtag() : page.getEtag();
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (EtagMatcher.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        final byte[] body = gzip ? page.getGzippedBody() : page.getBody();
+        if (page.getContentType() != null) {
+            response.setContentType(page.getContentType());
+        }
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        // Content-Length를 직접 채우면 본문을 다 쓰는 순간 응답이 커밋되어 CacheInterceptor가 Cache-Control을 붙이지 못한다.
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(final HttpServletRequest request) {
+        return AcceptEncoding.accepts(request.getHeader(HttpHeaders.ACCEPT_ENCODING), "gzip");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.viewcache;
+
+import com.example.version.ResourceVersion;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 다른 ViewResolver가 찾은 뷰를 CachingView로 감싼다.
+ * redirect:, forward: 뷰는 렌더링 결과가 없으므로 감싸지 않는다.
+ * Spring Boot의 error 뷰는 모델에 매번 다른 timestamp가 들어가 캐시해도 재사용되지 않으므로 감싸지 않는다.
+ */
+public class CachingViewResolver implements ViewResolver, Ordered {
+
+    private static final String ERROR_VIEW_NAME = "error";
+
+    private final ViewResolver delegate;
+    private final RenderedViewCache cache;
+    private final ResourceVersion resourceVersion;
+    private final Map<String, View> views = new ConcurrentHashMap<>();
+
+    public CachingViewResolver(final ViewResolver delegate, final RenderedViewCache cache, final ResourceVersion resourceVersion) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.resourceVersion = resourceVersion;
+    }
+
+    @Override
+    public View resolveViewName(final String viewName, final Locale locale) throws Exception {
+        if (viewName.startsWith("redirect:") || viewName.startsWith("forward:") || ERROR_VIEW_NAME.equals(viewName)) {
+            return null;
+        }
+        final String key = viewName + "_" + locale;
+        final View cached = views.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final View view = delegate.resolveViewName(viewName, locale);
+        if (view == null) {
+            return null;
+        }
+        final View cachingView = new CachingView(viewName, view, cache, resourceVersion);
+        views.put(key, cachingView);
+        return cachingView;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.viewcache;
+
+import com.example.etag.EtagMatcher;
+
+/**
+ * 렌더링이 끝난 페이지 한 장. 원본 바이트와, 압축 효과가 있을 때만 gzip으로 압축한 바이트를 함께 보관한다.
+ * ETag는 원본 내용의 MD5이고, gzip 본문에는 같은 값에 -gzip을 붙인 ETag를 사용한다.
+ */
+public class RenderedPage {
+
+    private final String contentType;
+    private final byte[] body;
+    private final byte[] gzippedBody;
+    private final String etag;
+
+    public RenderedPage(final String contentType, final byte[] body, final byte[] gzippedBody, final String etag) {
+        this.contentType = contentType;
+        this.body = body;
+        this.gzippedBody = gzippedBody;
+        this.etag = etag;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public boolean hasGzippedBody() {
+        return gzippedBody != null;
+    }
+
+    public byte[] getGzippedBody() {
+        return gzippedBody;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getGzippedEtag() {
+        return EtagMatcher.encoded(etag, "gzip");
+    }
+
+    int size() {
+        return body.length + (gzippedBody == null ? 0 : gzippedBody.length);
+    }
+}
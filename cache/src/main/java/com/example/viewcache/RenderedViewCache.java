@@ -0,0 +1,97 @@
+package com.example.viewcache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 렌더링된 페이지를 (뷰 이름, 모델, 리소스 버전) 단위로 보관하는 LRU 캐시.
+ * 보관한 페이지의 바이트 합이 maximumBytes를 넘으면 가장 오래 사용하지 않은 페이지부터 제거한다.
+ * 리소스 버전이 키에 들어가므로 버전이 바뀌면 이전 페이지는 더 이상 조회되지 않고 LRU로 밀려난다.
+ */
+public class RenderedViewCache {
+
+    private final long maximumBytes;
+    private final Map<Key, RenderedPage> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public RenderedViewCache(final long maximumBytes) {
+        this.maximumBytes = maximumBytes;
+    }
+
+    public synchronized RenderedPage get(final Key key) {
+        final RenderedPage page = pages.get(key);
+        if (page == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return page;
+    }
+
+    public synchronized void put(final Key key, final RenderedPage page) {
+        if (page.size() > maximumBytes) {
+            return;
+        }
+        final RenderedPage previous = pages.put(key, page);
+        if (previous != null) {
+            totalBytes -= previous.size();
+        }
+        totalBytes += page.size();
+
+        final var iterator = pages.values().iterator();
+        while (totalBytes > maximumBytes && iterator.hasNext()) {
+            totalBytes -= iterator.next().size();
+            iterator.remove();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 모델은 equals로 비교하므로 값 객체(문자열, 숫자 등)로 이루어진 모델에만 캐시를 적용한다.
+     */
+    public static class Key {
+
+        private final String viewName;
+        private final Map<String, ?> model;
+        private final String resourceVersion;
+        private final int hashCode;
+
+        public Key(final String viewName, final Map<String, ?> model, final String resourceVersion) {
+            this.viewName = viewName;
+            this.model = Map.copyOf(model);
+            this.resourceVersion = resourceVersion;
+            this.hashCode = Objects.hash(viewName, this.model, resourceVersion);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return viewName.equals(key.viewName)
+                    && model.equals(key.model)
+                    && resourceVersion.equals(key.resourceVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
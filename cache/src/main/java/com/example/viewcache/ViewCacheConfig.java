@@ -0,0 +1,25 @@
+package com.example.viewcache;
+
+import com.example.version.ResourceVersion;
+import com.github.jknack.handlebars.springmvc.HandlebarsViewResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "cache.view-cache", name = "enabled", havingValue = "true")
+public class ViewCacheConfig {
+
+    @Bean
+    public RenderedViewCache renderedViewCache(@Value("${cache.view-cache.maximum-bytes:10485760}") final long maximumBytes) {
+        return new RenderedViewCache(maximumBytes);
+    }
+
+    @Bean
+    public CachingViewResolver cachingViewResolver(final HandlebarsViewResolver handlebarsViewResolver,
+                                                   final RenderedViewCache renderedViewCache,
+                                                   final ResourceVersion resourceVersion) {
+        return new CachingViewResolver(handlebarsViewResolver, renderedViewCache, resourceVersion);
+    }
+}
@@ -6,13 +6,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.DigestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.time.Duration;
+import java.util.zip.GZIPInputStream;
 
 import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class GreetingControllerTest {
@@ -99,4 +105,123 @@ class GreetingControllerTest {
                 .expectStatus()
                 .isNotModified();
     }
+
+    /**
+     * 정적 파일마다 내용의 해시(fingerprint)로 URL을 만든다.
+     * 내용이 같은 파일은 재배포해도 URL이 바뀌지 않고, 내용과 맞지 않는 fingerprint로는 찾을 수 없다.
+     */
+    @Test
+    void testFingerprintedStaticResources() {
+        final var uri = String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES, version.getFingerprint("/js/index.js"));
+
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).value(body -> assertThat(body).contains(uri));
+
+        webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic());
+
+        webTestClient.get()
+                .uri(PREFIX_STATIC_RESOURCES + "/0000000000000000/js/index.js")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    /**
+     * 정적 파일의 ETag는 파일 내용의 MD5로 만든 strong ETag다.
+     * Tomcat이 압축하면서 붙이는 W/ 접두사가 있거나 If-None-Match에 여러 ETag가 나열되어 있어도 304를 응답한다.
+     */
+    @Test
+    void testStaticResourceEtag() throws IOException {
+        final var uri = String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES, version.getFingerprint("/js/index.js"));
+        final String etag;
+        try (final var inputStream = new ClassPathResource("static/js/index.js").getInputStream()) {
+            etag = "\"" + DigestUtils.md5DigestAsHex(inputStream) + "\"";
+        }
+
+        webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag);
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0000000000000000\", " + etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag);
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0000000000000000\"")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    /**
+     * Accept-Encoding에 gzip이 있으면 압축본을 "-gzip"이 붙은 ETag와 함께 보내고, 그 ETag로 재요청하면 304를 응답한다.
+     * gzip을 받을 수 없는 클라이언트에는 원본을 보낸다. 압축할 가치가 있도록 256바이트가 넘는 css 파일로 확인한다.
+     */
+    @Test
+    void testPrecompressedStaticResources() throws IOException {
+        final var uri = String.format("%s/%s/css/index.css", PREFIX_STATIC_RESOURCES, version.getFingerprint("/css/index.css"));
+        final byte[] original;
+        try (final var inputStream = new ClassPathResource("static/css/index.css").getInputStream()) {
+            original = inputStream.readAllBytes();
+        }
+        final var etag = "\"" + DigestUtils.md5DigestAsHex(original) + "\"";
+        final var gzipEtag = "\"" + DigestUtils.md5DigestAsHex(original) + "-gzip\"";
+
+        final var gzipped = webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, gzipEtag)
+                .expectBody(byte[].class).returnResult()
+                .getResponseBody();
+        try (final var inputStream = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(original);
+        }
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, gzipEtag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, gzipEtag);
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody(byte[].class).isEqualTo(original);
+
+        webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody(byte[].class).isEqualTo(original);
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.etag;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.version.CacheBustingWebConfig.CACHE_CONTROL_STATIC_RESOURCES;
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static com.example.version.CacheBustingWebConfig.STATIC_RESOURCE_LOCATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaticResourceEtagFilterTest {
+
+    private StaticResourceEtags etags;
+    private StaticResourceEtagFilter filter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        etags = new StaticResourceEtags(new PathMatchingResourcePatternResolver(), STATIC_RESOURCE_LOCATION);
+        etags.precompute();
+        filter = new StaticResourceEtagFilter(etags);
+    }
+
+    @Test
+    void testNotModifiedWithoutReachingResourceHandler() throws Exception {
+        final var etag = etags.findEtag("/js/index.js");
+        final var handled = new AtomicInteger();
+        final FilterChain resourceHandler = (request, response) -> handled.incrementAndGet();
+
+        final var request = new MockHttpServletRequest("GET", PREFIX_STATIC_RESOURCES + "/version/js/index.js");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/" + etag);
+        final var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, resourceHandler);
+
+        assertThat(handled).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo(CACHE_CONTROL_STATIC_RESOURCES.getHeaderValue());
+        assertThat(response.getContentLength()).isZero();
+
+        final var modifiedRequest = new MockHttpServletRequest("GET", PREFIX_STATIC_RESOURCES + "/version/js/index.js");
+        modifiedRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"0000000000000000\"");
+        final var modifiedResponse = new MockHttpServletResponse();
+        filter.doFilter(modifiedRequest, modifiedResponse, resourceHandler);
+
+        assertThat(handled).hasValue(1);
+        assertThat(modifiedResponse.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.sendfile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalResourceCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testExtractIntoFingerprintDirectory() throws IOException {
+        final LocalResourceCache previous = new LocalResourceCache(loaderOf("previous"), "classpath:/static/", directory);
+        final LocalResourceCache current = new LocalResourceCache(loaderOf("current"), "classpath:/static/", directory);
+
+        final Path previousFile = previous.findFile("v1", "/js/app.js");
+        final Path currentFile = current.findFile("v2", "/js/app.js");
+
+        assertThat(previousFile).isEqualTo(directory.resolve("v1/js/app.js"));
+        assertThat(currentFile).isEqualTo(directory.resolve("v2/js/app.js"));
+        assertThat(Files.readString(previousFile)).isEqualTo("previous");
+        assertThat(Files.readString(currentFile)).isEqualTo("current");
+    }
+
+    @Test
+    void testRejectPathOutsideDirectory() {
+        final LocalResourceCache cache = new LocalResourceCache(loaderOf("content"), "classpath:/static/", directory);
+
+        assertThat(cache.findFile("v1", "/../secret")).isNull();
+        assertThat(cache.findFile("../v1", "/js/app.js")).isNull();
+    }
+
+    /**
+     * jar 안의 리소스처럼 파일 시스템 경로가 없는 리소스를 돌려준다.
+     */
+    private static DefaultResourceLoader loaderOf(final String content) {
+        return new DefaultResourceLoader() {
+            @Override
+            public Resource getResource(final String location) {
+                return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+    }
+}
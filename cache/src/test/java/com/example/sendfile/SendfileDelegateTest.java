@@ -0,0 +1,58 @@
+package com.example.sendfile;
+
+import com.example.version.ResourceVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 기본 minimum-size에서는 작은 정적 파일이 기존 리소스 핸들러로 넘어가 압축본으로 나가야 한다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "cache.sendfile.enabled=true")
+class SendfileDelegateTest {
+
+    @Autowired
+    private ResourceVersion version;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testSmallResourceIsServedByResourceHandler() throws IOException {
+        final var uri = String.format("%s/%s/css/index.css", PREFIX_STATIC_RESOURCES, version.getFingerprint("/css/index.css"));
+        final byte[] original;
+        try (final var inputStream = new ClassPathResource("static/css/index.css").getInputStream()) {
+            original = inputStream.readAllBytes();
+        }
+
+        final var gzipped = webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectBody(byte[].class).returnResult()
+                .getResponseBody();
+        try (final var inputStream = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(original);
+        }
+
+        webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectBody(byte[].class).isEqualTo(original);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.sendfile;
+
+import com.example.version.ResourceVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"cache.sendfile.enabled=true", "cache.sendfile.minimum-size=0"})
+class SendfileResourceTest {
+
+    @Autowired
+    private ResourceVersion version;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testRangeRequest() {
+        final var uri = String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES, version.getFingerprint("/js/index.js"));
+
+        final var full = webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .expectBody(byte[].class).returnResult()
+                .getResponseBody();
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.RANGE, "bytes=0-4")
+                .exchange()
+                .expectStatus().isPartialContent()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 0-4/" + full.length)
+                .expectBody(byte[].class).value(body -> assertThat(body).containsExactly(Arrays.copyOf(full, 5)));
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.RANGE, "bytes=" + full.length + "-")
+                .exchange()
+                .expectStatus().isEqualTo(416)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes */" + full.length);
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.RANGE, "bytes=-0")
+                .exchange()
+                .expectStatus().isEqualTo(416)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes */" + full.length);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.viewcache;
+
+import com.example.version.ResourceVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.servlet.View;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "cache.view-cache.enabled=true")
+class ViewCacheTest {
+
+    @Autowired
+    private RenderedViewCache renderedViewCache;
+
+    @Autowired
+    private ResourceVersion resourceVersion;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testCachedPageNotModified() {
+        final var response = webTestClient
+                .get()
+                .uri("/")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.noCache().cachePrivate())
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody(String.class).returnResult();
+
+        final var etag = response.getResponseHeaders().getETag();
+        final var missCount = renderedViewCache.getMissCount();
+
+        webTestClient.get()
+                .uri("/")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus()
+                .isNotModified();
+
+        assertThat(renderedViewCache.getMissCount()).isEqualTo(missCount);
+        assertThat(renderedViewCache.getHitCount()).isPositive();
+    }
+
+    @Test
+    void testGzipNegotiation() throws Exception {
+        final var body = "<p>hello</p>".repeat(100);
+        final var view = new CachingView("gzip", htmlView(body, new AtomicInteger()), new RenderedViewCache(1024 * 1024), resourceVersion);
+
+        final var gzipRequest = new MockHttpServletRequest("GET", "/");
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        final var gzipResponse = new MockHttpServletResponse();
+        view.render(Map.of(), gzipRequest, gzipResponse);
+
+        assertThat(gzipResponse.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipResponse.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzipResponse.getHeader(HttpHeaders.ETAG)).endsWith("-gzip\"");
+        assertThat(gunzip(gzipResponse.getContentAsByteArray())).isEqualTo(body);
+
+        final var identityResponse = new MockHttpServletResponse();
+        view.render(Map.of(), new MockHttpServletRequest("GET", "/"), identityResponse);
+
+        assertThat(identityResponse.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(identityResponse.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(identityResponse.getHeader(HttpHeaders.ETAG)).doesNotContain("-gzip");
+        assertThat(identityResponse.getContentAsString()).isEqualTo(body);
+
+        final var refusedRequest = new MockHttpServletRequest("GET", "/");
+        refusedRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate");
+        final var refusedResponse = new MockHttpServletResponse();
+        view.render(Map.of(), refusedRequest, refusedResponse);
+
+        assertThat(refusedResponse.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(refusedResponse.getHeader(HttpHeaders.ETAG)).doesNotContain("-gzip");
+        assertThat(refusedResponse.getContentAsString()).isEqualTo(body);
+    }
+
+    @Test
+    void testEvictLeastRecentlyUsedPage() {
+        final var cache = new RenderedViewCache(250);
+        final var first = new RenderedViewCache.Key("first", Map.of(), "v1");
+        final var second = new RenderedViewCache.Key("second", Map.of(), "v1");
+        final var third = new RenderedViewCache.Key("third", Map.of(), "v1");
+
+        cache.put(first, page(100));
+        cache.put(second, page(100));
+        cache.get(first);
+        cache.put(third, page(100));
+
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(first)).isNotNull();
+        assertThat(cache.get(third)).isNotNull();
+
+        final var tooLarge = new RenderedViewCache.Key("too-large", Map.of(), "v1");
+        cache.put(tooLarge, page(251));
+        assertThat(cache.get(tooLarge)).isNull();
+    }
+
+    @Test
+    void testErrorResponseIsNotCached() throws Exception {
+        final var cache = new RenderedViewCache(1024 * 1024);
+        final var renderCount = new AtomicInteger();
+        final var view = new CachingView("status", htmlView("failed", renderCount), cache, resourceVersion);
+
+        for (int i = 0; i < 2; i++) {
+            final var response = new MockHttpServletResponse();
+            response.setStatus(500);
+            view.render(Map.of(), new MockHttpServletRequest("GET", "/"), response);
+
+            assertThat(response.getStatus()).isEqualTo(500);
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        }
+        assertThat(renderCount).hasValue(2);
+        assertThat(cache.getMissCount()).isZero();
+
+        final var resolver = new CachingViewResolver((viewName, locale) -> htmlView("error", renderCount), cache, resourceVersion);
+        assertThat(resolver.resolveViewName("error", Locale.KOREA)).isNull();
+    }
+
+    private static View htmlView(final String body, final AtomicInteger renderCount) {
+        return (model, request, response) -> {
+            renderCount.incrementAndGet();
+            response.setContentType("text/html;charset=UTF-8");
+            response.getWriter().write(body);
+        };
+    }
+
+    private static RenderedPage page(final int size) {
+        return new RenderedPage("text/html", new byte[size], null, "\"page\"");
+    }
+
+    private static String gunzip(final byte[] gzipped) throws IOException {
+        try (final var inputStream = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}